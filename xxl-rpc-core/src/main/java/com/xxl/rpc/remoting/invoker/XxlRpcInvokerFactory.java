@@ -2,10 +2,22 @@ package com.xxl.rpc.remoting.invoker;
 
 import com.xxl.rpc.registry.ServiceRegistry;
 import com.xxl.rpc.registry.impl.LocalServiceRegistry;
+import com.xxl.rpc.remoting.invoker.route.LoadBalance;
+import com.xxl.rpc.remoting.invoker.route.impl.XxlRpcLoadBalanceConsistentHashStrategy;
+import com.xxl.rpc.remoting.net.common.BackpressurePolicy;
+import com.xxl.rpc.remoting.net.common.ConnectionSelect;
+import com.xxl.rpc.remoting.net.common.NettyTransport;
 import com.xxl.rpc.remoting.net.params.BaseCallback;
 import com.xxl.rpc.remoting.net.params.XxlRpcFutureResponse;
 import com.xxl.rpc.remoting.net.params.XxlRpcResponse;
+import com.xxl.rpc.util.LongConcurrentMap;
 import com.xxl.rpc.util.XxlRpcException;
+import com.xxl.rpc.util.XxlRpcOverloadException;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,6 +25,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * xxl-rpc invoker factory, init service-registry
@@ -44,10 +57,115 @@ public class XxlRpcInvokerFactory {
         this.serviceRegistryParam = serviceRegistryParam;
     }
 
+    private NettyTransport nettyTransport = NettyTransport.AUTO;     // netty client transport, epoll when available
+    private int clientIoThreads = 0;        // netty client io threads, shared by all connect-client; default 0 (cpu*2)
+    private int flushConsolidation = 0;     // netty client flush batching, explicit flush after N writes; default 0 (disabled, flush per write)
+    private int connectionsPerAddress = 1;  // connect-client per address (NETTY、NETTY_HTTP、MINA); default 1
+    private ConnectionSelect connectionSelect = ConnectionSelect.ROUND;     // connection select when connectionsPerAddress > 1
+    private Executor completableFutureExecutor = null;      // executor to complete CompletableFuture response; default null (complete on io thread)
+    private int writeBufferLowWaterMark = 32 * 1024;        // connection write buffer water mark, not writable when above high, writable again when below low
+    private int writeBufferHighWaterMark = 64 * 1024;
+    private int maxPendingPerConnection = 0;                // max pending request per connection; default 0 (no limit)
+    private BackpressurePolicy backpressurePolicy = BackpressurePolicy.NONE;      // when connection saturated (max pending, or not writable); default NONE (disabled)
+    private int consistentHashVirtualNodeNum = 100;         // virtual node per address, for CONSISTENT_HASH、CONSISTENT_HASH_ARGUMENT (strategy is JVM singleton, apply when start); default 100
+
+    public void setNettyTransport(NettyTransport nettyTransport) {
+        if (nettyTransport != null) {
+            this.nettyTransport = nettyTransport;
+        }
+    }
+
+    public void setClientIoThreads(int clientIoThreads) {
+        this.clientIoThreads = clientIoThreads;
+    }
+
+    public void setFlushConsolidation(int flushConsolidation) {
+        this.flushConsolidation = flushConsolidation;
+    }
+
+    public void setConnectionsPerAddress(int connectionsPerAddress) {
+        this.connectionsPerAddress = connectionsPerAddress>0?connectionsPerAddress:1;
+    }
+
+    public void setConnectionSelect(ConnectionSelect connectionSelect) {
+        if (connectionSelect != null) {
+            this.connectionSelect = connectionSelect;
+        }
+    }
+
+    public void setCompletableFutureExecutor(Executor completableFutureExecutor) {
+        this.completableFutureExecutor = completableFutureExecutor;
+    }
+
+    public void setWriteBufferWaterMark(int writeBufferLowWaterMark, int writeBufferHighWaterMark) {
+        if (writeBufferLowWaterMark<0 || writeBufferHighWaterMark<writeBufferLowWaterMark) {
+            throw new XxlRpcException("xxl-rpc write buffer water mark invalid, low["+ writeBufferLowWaterMark +"], high["+ writeBufferHighWaterMark +"]");
+        }
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+    }
+
+    public void setMaxPendingPerConnection(int maxPendingPerConnection) {
+        this.maxPendingPerConnection = maxPendingPerConnection;
+    }
+
+    public void setBackpressurePolicy(BackpressurePolicy backpressurePolicy) {
+        if (backpressurePolicy != null) {
+            this.backpressurePolicy = backpressurePolicy;
+        }
+    }
+
+    public void setConsistentHashVirtualNodeNum(int consistentHashVirtualNodeNum) {
+        if (consistentHashVirtualNodeNum < 1) {
+            throw new XxlRpcException("xxl-rpc consistent hash virtualNodeNum invalid: " + consistentHashVirtualNodeNum);
+        }
+        this.consistentHashVirtualNodeNum = consistentHashVirtualNodeNum;
+    }
+
+    public NettyTransport getNettyTransport() {
+        return nettyTransport;
+    }
+
+    public int getFlushConsolidation() {
+        return flushConsolidation;
+    }
+
+    public int getConnectionsPerAddress() {
+        return connectionsPerAddress;
+    }
+
+    public ConnectionSelect getConnectionSelect() {
+        return connectionSelect;
+    }
+
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    public int getMaxPendingPerConnection() {
+        return maxPendingPerConnection;
+    }
+
+    public BackpressurePolicy getBackpressurePolicy() {
+        return backpressurePolicy;
+    }
+
+    public int getConsistentHashVirtualNodeNum() {
+        return consistentHashVirtualNodeNum;
+    }
+
 
     // ---------------------- start / stop ----------------------
     //新建一个 serviceRegistryClass,注册类实例,并连接到注册中心
     public void start() throws Exception {
+        // consistent hash virtual node, rings rebuild lazily
+        ((XxlRpcLoadBalanceConsistentHashStrategy) LoadBalance.CONSISTENT_HASH.xxlRpcInvokerRouter).setVirtualNodeNum(consistentHashVirtualNodeNum);
+        ((XxlRpcLoadBalanceConsistentHashStrategy) LoadBalance.CONSISTENT_HASH_ARGUMENT.xxlRpcInvokerRouter).setVirtualNodeNum(consistentHashVirtualNodeNum);
+
         // start registry
         if (serviceRegistryClass != null) {
             serviceRegistry = serviceRegistryClass.newInstance();
@@ -95,28 +213,90 @@ public class XxlRpcInvokerFactory {
     }
 
 
+    // ---------------------- request id ----------------------
+
+    // (static) JVM unique, connect-client pool is static and may be shared by multiple invoker factory
+    private static final AtomicLong requestIdGenerator = new AtomicLong(0);
+    public long nextRequestId(){
+        return requestIdGenerator.incrementAndGet();
+    }
+
+
     // ---------------------- future-response pool ----------------------
 
     // XxlRpcFutureResponseFactory
     //requestId 和返回结果 的集合,缓存XxlRpcFutureResponse，作为一个请求的请求和请求返回的封装；
-    private ConcurrentMap<String, XxlRpcFutureResponse> futureResponsePool = new ConcurrentHashMap<String, XxlRpcFutureResponse>();
-    public void setInvokerFuture(String requestId, XxlRpcFutureResponse futureResponse){
+    private LongConcurrentMap<XxlRpcFutureResponse> futureResponsePool = new LongConcurrentMap<XxlRpcFutureResponse>();     // long key, striped, avoid boxing
+    public void setInvokerFuture(long requestId, XxlRpcFutureResponse futureResponse){
         futureResponsePool.put(requestId, futureResponse);
     }
-    public void removeInvokerFuture(String requestId){
-        futureResponsePool.remove(requestId);
+    public XxlRpcFutureResponse getInvokerFuture(long requestId){
+        return futureResponsePool.get(requestId);
+    }
+    public void removeInvokerFuture(long requestId){
+        XxlRpcFutureResponse futureResponse = futureResponsePool.get(requestId);
+        if (futureResponse != null) {
+            removeInvokerFuture(futureResponse);
+        }
+    }
+    public void removeInvokerFuture(XxlRpcFutureResponse futureResponse){
+        if (takeInvokerFuture(futureResponse.getRequest().getRequestId()) != null) {
+            futureResponse.completeRouteFeedback(false);    // removed without response (send fail, caller timeout)
+        }
+
+        // hedged request, remove the hedge copy too (even primary already taken, e.g. its error ignored while hedge in flight)
+        XxlRpcFutureResponse hedge = futureResponse.getHedge();
+        if (hedge!=null && takeInvokerFuture(hedge.getRequest().getRequestId())!=null) {
+            hedge.completeRouteFeedback(false);
+        }
+    }
+    private XxlRpcFutureResponse takeInvokerFuture(long requestId){
+        XxlRpcFutureResponse futureResponse = futureResponsePool.remove(requestId);
+        if (futureResponse != null) {
+            futureResponse.releasePending();
+            futureResponse.cancelTimeout();
+        }
+        return futureResponse;
     }
     //客户端，处理provider 返回结果的处理；
-    public void notifyInvokerFuture(String requestId, final XxlRpcResponse xxlRpcResponse){
+    public void notifyInvokerFuture(long requestId, final XxlRpcResponse xxlRpcResponse){
 
-        // get
-        final XxlRpcFutureResponse futureResponse = futureResponsePool.get(requestId);
-        if (futureResponse == null) {
+        // get and remove, notify once (response / timeout / send-fail may race)
+        XxlRpcFutureResponse takenFutureResponse = takeInvokerFuture(requestId);
+        if (takenFutureResponse == null) {
             return;
         }
+        takenFutureResponse.completeRouteFeedback(xxlRpcResponse.getErrorMsg() == null);
+
+        // hedged request, first success response wins and the other copy is removed; error is ignored while the other copy still in flight
+        XxlRpcFutureResponse primary = (takenFutureResponse.getHedgePrimary()!=null)?takenFutureResponse.getHedgePrimary():takenFutureResponse;
+        if (primary.getHedge() != null) {
+            XxlRpcFutureResponse other = (takenFutureResponse==primary)?primary.getHedge():primary;
+            long otherRequestId = other.getRequest().getRequestId();
+            if (xxlRpcResponse.getErrorMsg()!=null && futureResponsePool.get(otherRequestId)!=null) {
+                return;
+            }
+            XxlRpcFutureResponse loser = takeInvokerFuture(otherRequestId);
+            if (loser != null) {
+                loser.completeRouteFeedback(false);     // cancelled
+            }
+            if (!primary.markNotified()) {
+                return;
+            }
+        }
+        final XxlRpcFutureResponse futureResponse = primary;
+
+        // latency sample of winner response (primary or hedge copy, since primary created), for hedge delay
+        if (futureResponse.getHedgePolicy()!=null && xxlRpcResponse.getErrorMsg()==null) {
+            futureResponse.getHedgePolicy().record(System.currentTimeMillis() - futureResponse.getRequest().getCreateMillisTime());
+        }
 
         // notify
-        if (futureResponse.getInvokeCallback()!=null) {
+        if (futureResponse.getCompletableFuture()!=null) {
+
+            // completable future type
+            completeFuture(futureResponse.getCompletableFuture(), xxlRpcResponse);
+        } else if (futureResponse.getInvokeCallback()!=null) {
 
             // callback type
             try {
@@ -124,7 +304,7 @@ public class XxlRpcInvokerFactory {
                     @Override
                     public void run() {
                         if (xxlRpcResponse.getErrorMsg() != null) {
-                            futureResponse.getInvokeCallback().onFailure(new XxlRpcException(xxlRpcResponse.getErrorMsg()));
+                            futureResponse.getInvokeCallback().onFailure(xxlRpcResponse.isOverload()?new XxlRpcOverloadException(xxlRpcResponse.getErrorMsg()):new XxlRpcException(xxlRpcResponse.getErrorMsg()));
                         } else {
                             futureResponse.getInvokeCallback().onSuccess(xxlRpcResponse.getResult());
                         }
@@ -139,9 +319,128 @@ public class XxlRpcInvokerFactory {
             futureResponse.setResponse(xxlRpcResponse);
         }
 
-        // do remove
-        futureResponsePool.remove(requestId);
+    }
+
+
+    /**
+     * complete CompletableFuture, on io thread (inline) or completableFutureExecutor
+     *
+     * @param completableFuture
+     * @param xxlRpcResponse
+     */
+    private void completeFuture(final CompletableFuture<Object> completableFuture, final XxlRpcResponse xxlRpcResponse) {
+        Runnable complete = new Runnable() {
+            @Override
+            public void run() {
+                if (xxlRpcResponse.getErrorMsg() != null) {
+                    completableFuture.completeExceptionally(xxlRpcResponse.isOverload()?new XxlRpcOverloadException(xxlRpcResponse.getErrorMsg()):new XxlRpcException(xxlRpcResponse.getErrorMsg()));
+                } else {
+                    completableFuture.complete(xxlRpcResponse.getResult());
+                }
+            }
+        };
+
+        if (completableFutureExecutor == null) {
+            complete.run();
+            return;
+        }
+        try {
+            completableFutureExecutor.execute(complete);
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+            completableFuture.completeExceptionally(e);
+        }
+    }
+
+
+    // ---------------------- future-response timeout ----------------------
+    // 时间轮，到期未响应的请求统一超时：移除 future-response，并通知 callback/future
+    private volatile HashedWheelTimer timeoutTimer = null;
+    private HashedWheelTimer getTimeoutTimer() {
+
+        if (timeoutTimer == null) {
+            synchronized (this) {
+                if (timeoutTimer == null) {
+                    final HashedWheelTimer timer = new HashedWheelTimer(new DefaultThreadFactory("xxl-rpc, XxlRpcInvokerFactory-timeoutTimer", true), 10, TimeUnit.MILLISECONDS, 512);
+
+                    // stop callback
+                    addStopCallBack(new BaseCallback() {
+                        @Override
+                        public void run() throws Exception {
+                            timer.stop();
+                            timeoutTimer = null;
+                        }
+                    });
+                    timeoutTimer = timer;
+                }
+            }
+        }
+        return timeoutTimer;
+    }
+
+    /**
+     * expire future-response at deadline, notify with timeout error
+     *
+     * @param requestId
+     * @param timeout   ms
+     * @return
+     */
+    public Timeout scheduleTimeout(final long requestId, long timeout) {
+        return getTimeoutTimer().newTimeout(new TimerTask() {
+            @Override
+            public void run(Timeout handle) throws Exception {
+                XxlRpcFutureResponse futureResponse = futureResponsePool.get(requestId);
+                if (futureResponse == null) {
+                    return;
+                }
+
+                XxlRpcResponse xxlRpcResponse = new XxlRpcResponse();
+                xxlRpcResponse.setRequestId(requestId);
+                xxlRpcResponse.setErrorMsg("xxl-rpc, request timeout at:"+ System.currentTimeMillis() +", request:" + futureResponse.getRequest().toString());
+
+                notifyInvokerFuture(requestId, xxlRpcResponse);
+            }
+        }, timeout, TimeUnit.MILLISECONDS);
+    }
 
+
+    /**
+     * schedule task on timeout timer, task should be short (not block timer thread)
+     *
+     * @param task
+     * @param delay   ms
+     * @return
+     */
+    public Timeout newTimeout(TimerTask task, long delay) {
+        return getTimeoutTimer().newTimeout(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+
+    // ---------------------- client io EventLoopGroup ----------------------
+    // netty client io 线程组，所有 ConnectClient 共享，避免每个 address 单独创建线程组
+    private volatile EventLoopGroup clientEventLoopGroup = null;
+    public EventLoopGroup getClientEventLoopGroup() {
+
+        if (clientEventLoopGroup == null) {
+            synchronized (this) {
+                if (clientEventLoopGroup == null) {
+                    final EventLoopGroup eventLoopGroup = nettyTransport.newEventLoopGroup(clientIoThreads, new DefaultThreadFactory("xxl-rpc, XxlRpcInvokerFactory-clientEventLoopGroup"));
+                    logger.info(">>>>>>>>>>> xxl-rpc, invoker factory init client EventLoopGroup, transport = {}", nettyTransport.resolve());
+
+
+                    // stop callback
+                    addStopCallBack(new BaseCallback() {
+                        @Override
+                        public void run() throws Exception {
+                            eventLoopGroup.shutdownGracefully();
+                            clientEventLoopGroup = null;
+                        }
+                    });
+                    clientEventLoopGroup = eventLoopGroup;
+                }
+            }
+        }
+        return clientEventLoopGroup;
     }
 
 
@@ -0,0 +1,39 @@
+package com.xxl.rpc.remoting.invoker.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * hedged request, for idempotent (read) method of iface; only SYNC/FUTURE call (and method return CompletableFuture)
+ *
+ * send a second copy to another address when the first has not answered within hedge delay (latency percentile),
+ * first success response wins, the other is ignored
+ *
+ * @author xxl-rpc contributors
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface XxlRpcHedge {
+
+    /**
+     * hedge delay, percentile of recent latency (ms), 0-100
+     *
+     * @return
+     */
+    double percentile() default 95;
+
+    /**
+     * fixed hedge delay (ms), percentile ignored when greater than 0
+     *
+     * @return
+     */
+    long delay() default 0;
+
+    /**
+     * max hedged request, percent of total request; avoid doubling load when all provider slow
+     *
+     * @return
+     */
+    int budgetPercent() default 10;
+
+}
@@ -0,0 +1,25 @@
+package com.xxl.rpc.remoting.invoker.annotation;
+
+import com.xxl.rpc.remoting.invoker.route.RouteKeyExtractor;
+
+import java.lang.annotation.*;
+
+/**
+ * route key, method argument hashed onto ring for CONSISTENT_HASH_ARGUMENT load balance;
+ * requests of the same key always go to the same provider (affinity, provider can cache hot entity)
+ *
+ * @author xxl-rpc contributors
+ */
+@Target({ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface XxlRpcRouteKey {
+
+    /**
+     * route key extractor, default "String.valueOf(argument)"
+     *
+     * @return
+     */
+    Class<? extends RouteKeyExtractor> extractor() default RouteKeyExtractor.class;
+
+}
@@ -3,6 +3,7 @@ package com.xxl.rpc.remoting.invoker.call;
 import com.xxl.rpc.remoting.net.params.XxlRpcFutureResponse;
 import com.xxl.rpc.remoting.net.params.XxlRpcResponse;
 import com.xxl.rpc.util.XxlRpcException;
+import com.xxl.rpc.util.XxlRpcOverloadException;
 
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -59,7 +60,7 @@ public class XxlRpcInvokeFuture implements Future {
             // future get
             XxlRpcResponse xxlRpcResponse = futureResponse.get(timeout, unit);
             if (xxlRpcResponse.getErrorMsg() != null) {
-                throw new XxlRpcException(xxlRpcResponse.getErrorMsg());
+                throw xxlRpcResponse.isOverload()?new XxlRpcOverloadException(xxlRpcResponse.getErrorMsg()):new XxlRpcException(xxlRpcResponse.getErrorMsg());
             }
             return xxlRpcResponse.getResult();
         } finally {
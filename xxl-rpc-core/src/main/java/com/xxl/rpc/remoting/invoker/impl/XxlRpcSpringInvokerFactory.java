@@ -4,6 +4,9 @@ import com.xxl.rpc.registry.ServiceRegistry;
 import com.xxl.rpc.remoting.invoker.XxlRpcInvokerFactory;
 import com.xxl.rpc.remoting.invoker.annotation.XxlRpcReference;
 import com.xxl.rpc.remoting.invoker.reference.XxlRpcReferenceBean;
+import com.xxl.rpc.remoting.net.common.BackpressurePolicy;
+import com.xxl.rpc.remoting.net.common.ConnectionSelect;
+import com.xxl.rpc.remoting.net.common.NettyTransport;
 import com.xxl.rpc.remoting.provider.XxlRpcProviderFactory;
 import com.xxl.rpc.util.XxlRpcException;
 import org.slf4j.Logger;
@@ -20,6 +23,7 @@ import java.lang.reflect.Field;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 /**
  * xxl-rpc invoker factory, init service-registry and spring-bean by annotation (for spring)
@@ -36,6 +40,18 @@ public class XxlRpcSpringInvokerFactory extends InstantiationAwareBeanPostProces
     private Class<? extends ServiceRegistry> serviceRegistryClass;          // class.forname
     private Map<String, String> serviceRegistryParam;
 
+    private String nettyTransport = NettyTransport.AUTO.name();
+    private int clientIoThreads = 0;
+    private int flushConsolidation = 0;
+    private int connectionsPerAddress = 1;
+    private String connectionSelect = ConnectionSelect.ROUND.name();
+    private Executor completableFutureExecutor;
+    private int writeBufferLowWaterMark = 32 * 1024;
+    private int writeBufferHighWaterMark = 64 * 1024;
+    private int maxPendingPerConnection = 0;
+    private String backpressurePolicy = BackpressurePolicy.NONE.name();
+    private int consistentHashVirtualNodeNum = 100;
+
 
     public void setServiceRegistryClass(Class<? extends ServiceRegistry> serviceRegistryClass) {
         this.serviceRegistryClass = serviceRegistryClass;
@@ -45,6 +61,50 @@ public class XxlRpcSpringInvokerFactory extends InstantiationAwareBeanPostProces
         this.serviceRegistryParam = serviceRegistryParam;
     }
 
+    public void setNettyTransport(String nettyTransport) {
+        this.nettyTransport = nettyTransport;
+    }
+
+    public void setClientIoThreads(int clientIoThreads) {
+        this.clientIoThreads = clientIoThreads;
+    }
+
+    public void setFlushConsolidation(int flushConsolidation) {
+        this.flushConsolidation = flushConsolidation;
+    }
+
+    public void setConnectionsPerAddress(int connectionsPerAddress) {
+        this.connectionsPerAddress = connectionsPerAddress;
+    }
+
+    public void setConnectionSelect(String connectionSelect) {
+        this.connectionSelect = connectionSelect;
+    }
+
+    public void setCompletableFutureExecutor(Executor completableFutureExecutor) {
+        this.completableFutureExecutor = completableFutureExecutor;
+    }
+
+    public void setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+    }
+
+    public void setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+    }
+
+    public void setMaxPendingPerConnection(int maxPendingPerConnection) {
+        this.maxPendingPerConnection = maxPendingPerConnection;
+    }
+
+    public void setBackpressurePolicy(String backpressurePolicy) {
+        this.backpressurePolicy = backpressurePolicy;
+    }
+
+    public void setConsistentHashVirtualNodeNum(int consistentHashVirtualNodeNum) {
+        this.consistentHashVirtualNodeNum = consistentHashVirtualNodeNum;
+    }
+
 
     // ---------------------- util ----------------------
 
@@ -55,6 +115,16 @@ public class XxlRpcSpringInvokerFactory extends InstantiationAwareBeanPostProces
     public void afterPropertiesSet() throws Exception {
         // start invoker factory
         xxlRpcInvokerFactory = new XxlRpcInvokerFactory(serviceRegistryClass, serviceRegistryParam);
+        xxlRpcInvokerFactory.setNettyTransport(NettyTransport.match(nettyTransport, NettyTransport.AUTO));
+        xxlRpcInvokerFactory.setClientIoThreads(clientIoThreads);
+        xxlRpcInvokerFactory.setFlushConsolidation(flushConsolidation);
+        xxlRpcInvokerFactory.setConnectionsPerAddress(connectionsPerAddress);
+        xxlRpcInvokerFactory.setConnectionSelect(ConnectionSelect.match(connectionSelect, ConnectionSelect.ROUND));
+        xxlRpcInvokerFactory.setCompletableFutureExecutor(completableFutureExecutor);
+        xxlRpcInvokerFactory.setWriteBufferWaterMark(writeBufferLowWaterMark, writeBufferHighWaterMark);
+        xxlRpcInvokerFactory.setMaxPendingPerConnection(maxPendingPerConnection);
+        xxlRpcInvokerFactory.setBackpressurePolicy(BackpressurePolicy.match(backpressurePolicy, BackpressurePolicy.NONE));
+        xxlRpcInvokerFactory.setConsistentHashVirtualNodeNum(consistentHashVirtualNodeNum);
         xxlRpcInvokerFactory.start();
     }
     //一个bean 实例 被创建之后，所要执行的方法
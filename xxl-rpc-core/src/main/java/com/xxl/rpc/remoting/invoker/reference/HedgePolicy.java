@@ -0,0 +1,123 @@
+package com.xxl.rpc.remoting.invoker.reference;
+
+import com.xxl.rpc.remoting.invoker.annotation.XxlRpcHedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * hedge policy of iface method
+ * 对冲请求策略：记录最近请求延迟（环形采样），按百分位计算对冲延迟；对冲请求数受预算（占总请求百分比）限制
+ *
+ * @author xxl-rpc contributors
+ */
+public class HedgePolicy {
+
+    private static final int SAMPLE_SIZE = 256;             // recent latency samples, ring
+    private static final int MIN_SAMPLES = 64;              // no hedge before enough samples (percentile delay)
+    private static final int RECOMPUTE_INTERVAL = 32;       // recompute percentile delay per N samples
+
+    private final double percentile;
+    private final long fixedDelay;
+    private final int budgetPercent;
+
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLE_SIZE);
+    private final AtomicLong sampleCount = new AtomicLong(0);
+    private volatile long percentileDelay = 0;              // 0 means unknown
+
+    private final AtomicLong requestCount = new AtomicLong(0);
+    private final AtomicLong hedgeCount = new AtomicLong(0);
+
+    public HedgePolicy(XxlRpcHedge hedge) {
+        this(hedge.percentile(), hedge.delay(), hedge.budgetPercent());
+    }
+
+    public HedgePolicy(double percentile, long fixedDelay, int budgetPercent) {
+        this.percentile = Math.min(100, Math.max(0, percentile));
+        this.fixedDelay = Math.max(0, fixedDelay);
+        this.budgetPercent = Math.min(100, Math.max(0, budgetPercent));
+    }
+
+
+    // ---------------------- latency ----------------------
+
+    /**
+     * record latency of success response
+     *
+     * @param latencyMillis
+     */
+    public void record(long latencyMillis) {
+        long count = sampleCount.getAndIncrement() + 1;
+        samples.set((int) ((count - 1) % SAMPLE_SIZE), latencyMillis);
+
+        if (fixedDelay == 0 && count >= MIN_SAMPLES && count % RECOMPUTE_INTERVAL == 0) {
+            int size = (int) Math.min(count, SAMPLE_SIZE);
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+
+            int index = (int) Math.ceil(percentile / 100 * size) - 1;
+            percentileDelay = Math.max(1, sorted[Math.min(size - 1, Math.max(0, index))]);
+        }
+    }
+
+    /**
+     * hedge delay (ms)
+     *
+     * @return  0 means not hedge (not enough samples yet)
+     */
+    public long getHedgeDelay() {
+        return (fixedDelay > 0)?fixedDelay:percentileDelay;
+    }
+
+
+    // ---------------------- budget ----------------------
+
+    public void onRequest() {
+        requestCount.incrementAndGet();
+    }
+
+    /**
+     * acquire hedge budget
+     *
+     * @return  false when hedged request reach budget percent of total request
+     */
+    public boolean tryHedge() {
+        for (;;) {
+            long current = hedgeCount.get();
+            if (current * 100 >= requestCount.get() * budgetPercent) {
+                return false;
+            }
+            if (hedgeCount.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+
+    // ---------------------- metrics ----------------------
+
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    public long getHedgeCount() {
+        return hedgeCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "HedgePolicy{" +
+                "percentile=" + percentile +
+                ", fixedDelay=" + fixedDelay +
+                ", budgetPercent=" + budgetPercent +
+                ", hedgeDelay=" + getHedgeDelay() +
+                ", requestCount=" + requestCount.get() +
+                ", hedgeCount=" + hedgeCount.get() +
+                '}';
+    }
+
+}
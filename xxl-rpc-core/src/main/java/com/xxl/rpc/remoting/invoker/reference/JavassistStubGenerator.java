@@ -0,0 +1,139 @@
+package com.xxl.rpc.remoting.invoker.reference;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtMethod;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * javassist stub generator, only loaded when javassist available (provided)
+ *
+ * @author xxl-rpc contributors
+ */
+class JavassistStubGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(JavassistStubGenerator.class);
+
+    private static final AtomicInteger STUB_INDEX = new AtomicInteger(0);
+
+    /**
+     * generate stub class:
+     *
+     * <pre>
+     * public class Iface$XxlRpcStub0 implements Iface {
+     *     private final InvocationHandler handler;
+     *     private final Method[] methods;
+     *
+     *     public String sayHi(String name) {
+     *         return (String) handler.invoke(this, methods[0], new Object[]{name});
+     *     }
+     * }
+     * </pre>
+     */
+    static ReferenceStubFactory.StubClass generate(Class<?> iface) {
+        try {
+            Method[] methods = stubMethods(iface);
+
+            ClassLoader classLoader = iface.getClassLoader();
+            if (classLoader == null) {
+                classLoader = Thread.currentThread().getContextClassLoader();
+            }
+
+            ClassPool classPool = new ClassPool(true);
+            classPool.appendClassPath(new LoaderClassPath(classLoader));
+
+            String stubClassName = iface.getName() + "$XxlRpcStub" + STUB_INDEX.getAndIncrement();
+            CtClass stubCtClass = classPool.makeClass(stubClassName);
+            stubCtClass.addInterface(classPool.get(iface.getName()));
+
+            stubCtClass.addField(CtField.make("private final java.lang.reflect.InvocationHandler handler;", stubCtClass));
+            stubCtClass.addField(CtField.make("private final java.lang.reflect.Method[] methods;", stubCtClass));
+            stubCtClass.addConstructor(CtNewConstructor.make(
+                    "public " + stubCtClass.getSimpleName() + "(java.lang.reflect.InvocationHandler handler, java.lang.reflect.Method[] methods) {" +
+                            " this.handler = handler; this.methods = methods; }",
+                    stubCtClass));
+
+            for (int i = 0; i < methods.length; i++) {
+                CtMethod ifaceCtMethod = findCtMethod(classPool.get(methods[i].getDeclaringClass().getName()), methods[i]);
+                CtMethod stubCtMethod = CtNewMethod.copy(ifaceCtMethod, stubCtClass, null);
+                stubCtMethod.setModifiers(javassist.Modifier.PUBLIC);
+                stubCtMethod.setBody("{ return ($r) handler.invoke(this, methods[" + i + "], $args); }");
+                stubCtClass.addMethod(stubCtMethod);
+            }
+
+            Class<?> stubClass;
+            try {
+                // jdk9+, define in iface package by Lookup (same package as iface)
+                stubClass = stubCtClass.toClass(iface);
+            } catch (Throwable e) {
+                // jdk8, define by ClassLoader
+                stubClass = stubCtClass.toClass(classLoader, iface.getProtectionDomain());
+            }
+            stubCtClass.detach();
+
+            Constructor<?> constructor = stubClass.getConstructor(InvocationHandler.class, Method[].class);
+            return new ReferenceStubFactory.StubClass(constructor, methods);
+        } catch (Throwable e) {
+            logger.warn(">>>>>>>>>>> xxl-rpc, reference stub generate fail, fallback to jdk proxy. iface = {}", iface.getName(), e);
+            return new ReferenceStubFactory.StubClass(null, null);
+        }
+    }
+
+    /**
+     * abstract iface methods, distinct by signature (same method from multi super-iface)
+     */
+    private static Method[] stubMethods(Class<?> iface) {
+        Map<String, Method> methodMap = new LinkedHashMap<String, Method>();
+        for (Method method : iface.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            String signature = method.getName() + Arrays.toString(method.getParameterTypes());
+            if (!methodMap.containsKey(signature)) {
+                methodMap.put(signature, method);
+            }
+        }
+        return methodMap.values().toArray(new Method[methodMap.size()]);
+    }
+
+    private static CtMethod findCtMethod(CtClass ctClass, Method method) throws Exception {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            descriptor.append(descriptorOf(parameterType));
+        }
+        descriptor.append(")").append(descriptorOf(method.getReturnType()));
+        return ctClass.getMethod(method.getName(), descriptor.toString());
+    }
+
+    private static String descriptorOf(Class<?> type) {
+        if (type.isArray()) {
+            return type.getName().replace('.', '/');
+        }
+        if (type.isPrimitive()) {
+            if (type == void.class) return "V";
+            if (type == boolean.class) return "Z";
+            if (type == byte.class) return "B";
+            if (type == char.class) return "C";
+            if (type == short.class) return "S";
+            if (type == int.class) return "I";
+            if (type == long.class) return "J";
+            if (type == float.class) return "F";
+            return "D";
+        }
+        return "L" + type.getName().replace('.', '/') + ";";
+    }
+
+}
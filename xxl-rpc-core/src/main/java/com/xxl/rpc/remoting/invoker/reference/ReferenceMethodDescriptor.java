@@ -0,0 +1,142 @@
+package com.xxl.rpc.remoting.invoker.reference;
+
+import com.xxl.rpc.remoting.invoker.annotation.XxlRpcHedge;
+import com.xxl.rpc.remoting.invoker.annotation.XxlRpcRouteKey;
+import com.xxl.rpc.remoting.invoker.call.CallType;
+import com.xxl.rpc.remoting.invoker.generic.XxlRpcGenericService;
+import com.xxl.rpc.remoting.invoker.route.RouteKeyExtractor;
+import com.xxl.rpc.remoting.provider.XxlRpcProviderFactory;
+import com.xxl.rpc.util.XxlRpcException;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * reference method descriptor, immutable, build once per iface method
+ * 客户端方法描述：引用创建时按接口方法预先计算（类名、方法名、参数类型、服务key、超时、调用方式），调用时不再重复计算
+ *
+ * @author xxl-rpc contributors
+ */
+public class ReferenceMethodDescriptor {
+
+    private final String className;
+    private final String version;
+    private final String methodName;
+    private final Class<?>[] parameterTypes;
+    private final String serviceKey;
+
+    private final long timeout;
+    private final CallType callType;
+
+    private final boolean generic;                  // XxlRpcGenericService.invoke, resolve class-method by args
+    private final boolean objectMethod;             // method like "Object.toString()", not support
+    private final boolean completableFuture;        // method return CompletableFuture (not ONEWAY)
+
+    private final HedgePolicy hedgePolicy;          // @XxlRpcHedge, SYNC/FUTURE only; null means not hedge
+
+    private final int routeKeyIndex;                // argument index of @XxlRpcRouteKey; -1 means absent
+    private final RouteKeyExtractor routeKeyExtractor;      // null means String.valueOf(argument)
+
+    public ReferenceMethodDescriptor(Method method, String version, long timeout, CallType callType) {
+        this.className = method.getDeclaringClass().getName();
+        this.version = version;
+        this.methodName = method.getName();
+        this.parameterTypes = method.getParameterTypes();
+        this.serviceKey = XxlRpcProviderFactory.makeServiceKey(className, version);
+
+        this.timeout = timeout;
+        this.callType = callType;
+
+        this.generic = className.equals(XxlRpcGenericService.class.getName()) && methodName.equals("invoke");
+        this.objectMethod = className.equals(Object.class.getName());
+        this.completableFuture = CallType.ONEWAY != callType && CompletableFuture.class.isAssignableFrom(method.getReturnType());
+
+        XxlRpcHedge hedge = method.getAnnotation(XxlRpcHedge.class);
+        this.hedgePolicy = (hedge!=null && (CallType.SYNC==callType || CallType.FUTURE==callType))?new HedgePolicy(hedge):null;
+
+        int routeKeyIndex = -1;
+        RouteKeyExtractor routeKeyExtractor = null;
+        Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        for (int i = 0; i < parameterAnnotations.length && routeKeyIndex<0; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof XxlRpcRouteKey) {
+                    routeKeyIndex = i;
+                    Class<? extends RouteKeyExtractor> extractorClass = ((XxlRpcRouteKey) annotation).extractor();
+                    if (extractorClass != RouteKeyExtractor.class) {
+                        try {
+                            routeKeyExtractor = extractorClass.getDeclaredConstructor().newInstance();
+                        } catch (Exception e) {
+                            throw new XxlRpcException("xxl-rpc route key extractor["+ extractorClass.getName() +"] instantiate fail.", e);
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+        this.routeKeyIndex = routeKeyIndex;
+        this.routeKeyExtractor = routeKeyExtractor;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * shared array, not modify
+     */
+    public Class<?>[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    public String getServiceKey() {
+        return serviceKey;
+    }
+
+    public long getTimeout() {
+        return timeout;
+    }
+
+    public CallType getCallType() {
+        return callType;
+    }
+
+    public boolean isGeneric() {
+        return generic;
+    }
+
+    public boolean isObjectMethod() {
+        return objectMethod;
+    }
+
+    public boolean isCompletableFuture() {
+        return completableFuture;
+    }
+
+    public HedgePolicy getHedgePolicy() {
+        return hedgePolicy;
+    }
+
+    /**
+     * route key of invoke, by "@XxlRpcRouteKey" argument
+     *
+     * @param args
+     * @return  null if absent
+     */
+    public String routeKey(Object[] args) {
+        if (routeKeyIndex<0 || args==null || args[routeKeyIndex]==null) {
+            return null;
+        }
+        Object argument = args[routeKeyIndex];
+        return (routeKeyExtractor!=null)?routeKeyExtractor.extract(argument):String.valueOf(argument);
+    }
+
+}
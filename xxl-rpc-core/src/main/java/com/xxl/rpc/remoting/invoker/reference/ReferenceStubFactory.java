@@ -0,0 +1,84 @@
+package com.xxl.rpc.remoting.invoker.reference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * reference stub factory
+ * 客户端桩：javassist 存在时为每个接口生成一个实现类（方法直接持有预先解析的 Method，转发到 InvocationHandler）；
+ * javassist 不存在或生成失败时，降级为 jdk 动态代理
+ *
+ * @author xxl-rpc contributors
+ */
+public class ReferenceStubFactory {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceStubFactory.class);
+
+    private static final boolean JAVASSIST_AVAILABLE = isJavassistAvailable();
+
+    // iface -> stub constructor(InvocationHandler, Method[]); absent value when generate fail
+    private static final ConcurrentMap<Class<?>, StubClass> stubClassCache = new ConcurrentHashMap<Class<?>, StubClass>();
+
+    private static boolean isJavassistAvailable() {
+        try {
+            Class.forName("javassist.ClassPool", false, ReferenceStubFactory.class.getClassLoader());
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+
+    // ---------------------- new instance ----------------------
+
+    /**
+     * new reference instance of iface, generated stub (javassist), fallback to jdk proxy
+     *
+     * Object method like "toString" is not forward to handler by generated stub
+     *
+     * @param iface
+     * @param handler
+     * @return
+     */
+    public static Object newInstance(Class<?> iface, InvocationHandler handler) {
+        if (JAVASSIST_AVAILABLE && iface.isInterface()) {
+            StubClass stubClass = stubClassCache.get(iface);
+            if (stubClass == null) {
+                stubClass = JavassistStubGenerator.generate(iface);
+                StubClass exist = stubClassCache.putIfAbsent(iface, stubClass);
+                if (exist != null) {
+                    stubClass = exist;
+                }
+            }
+            if (stubClass.constructor != null) {
+                try {
+                    return stubClass.constructor.newInstance(handler, stubClass.methods);
+                } catch (Exception e) {
+                    logger.warn(">>>>>>>>>>> xxl-rpc, reference stub new instance fail, fallback to jdk proxy. iface = {}", iface.getName(), e);
+                }
+            }
+        }
+
+        return Proxy.newProxyInstance(Thread.currentThread().getContextClassLoader(), new Class<?>[] { iface }, handler);
+    }
+
+
+    // ---------------------- stub class ----------------------
+
+    static class StubClass {
+        private final Constructor<?> constructor;
+        private final Method[] methods;
+
+        StubClass(Constructor<?> constructor, Method[] methods) {
+            this.constructor = constructor;
+            this.methods = methods;
+        }
+    }
+
+}
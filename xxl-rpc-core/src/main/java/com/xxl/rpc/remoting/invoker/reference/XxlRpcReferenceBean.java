@@ -4,10 +4,11 @@ import com.xxl.rpc.remoting.invoker.XxlRpcInvokerFactory;
 import com.xxl.rpc.remoting.invoker.call.CallType;
 import com.xxl.rpc.remoting.invoker.call.XxlRpcInvokeCallback;
 import com.xxl.rpc.remoting.invoker.call.XxlRpcInvokeFuture;
-import com.xxl.rpc.remoting.invoker.generic.XxlRpcGenericService;
 import com.xxl.rpc.remoting.invoker.route.LoadBalance;
+import com.xxl.rpc.remoting.invoker.route.RouteFeedback;
 import com.xxl.rpc.remoting.net.Client;
 import com.xxl.rpc.remoting.net.NetEnum;
+import com.xxl.rpc.remoting.net.common.BackpressurePolicy;
 import com.xxl.rpc.remoting.net.params.XxlRpcFutureResponse;
 import com.xxl.rpc.remoting.net.params.XxlRpcRequest;
 import com.xxl.rpc.remoting.net.params.XxlRpcResponse;
@@ -15,14 +16,19 @@ import com.xxl.rpc.remoting.provider.XxlRpcProviderFactory;
 import com.xxl.rpc.serialize.Serializer;
 import com.xxl.rpc.util.ClassUtil;
 import com.xxl.rpc.util.XxlRpcException;
+import com.xxl.rpc.util.XxlRpcOverloadException;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.TreeSet;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -111,6 +117,9 @@ public class XxlRpcReferenceBean {
 			this.invokerFactory = XxlRpcInvokerFactory.getInstance();
 		}
 
+		// init method descriptor
+		initMethodDescriptors();
+
 		// init Client
 		//初始化一个client服务，比如netty线程池服务；
 		initClient();
@@ -142,25 +151,66 @@ public class XxlRpcReferenceBean {
 	}
 
 
+	// ---------------------- method descriptor ----------------------
+
+	// iface method -> descriptor, identity lookup; copy-on-write when a new Method instance (jdk proxy) found
+	private volatile Map<Method, ReferenceMethodDescriptor> methodDescriptors;
+	private final Map<Method, ReferenceMethodDescriptor> methodDescriptorsByEquals = new HashMap<Method, ReferenceMethodDescriptor>();
+
+	private void initMethodDescriptors() {
+		Map<Method, ReferenceMethodDescriptor> descriptors = new IdentityHashMap<Method, ReferenceMethodDescriptor>();
+		for (Method method : iface.getMethods()) {
+			ReferenceMethodDescriptor descriptor = new ReferenceMethodDescriptor(method, version, timeout, callType);
+			descriptors.put(method, descriptor);
+			methodDescriptorsByEquals.put(method, descriptor);
+		}
+		methodDescriptors = descriptors;
+	}
+
+	ReferenceMethodDescriptor methodDescriptor(Method method) {
+		ReferenceMethodDescriptor descriptor = methodDescriptors.get(method);
+		if (descriptor != null) {
+			return descriptor;
+		}
+
+		// other Method instance of same method (Class.getMethods return copy), or Object method
+		synchronized (methodDescriptorsByEquals) {
+			descriptor = methodDescriptorsByEquals.get(method);
+			if (descriptor == null) {
+				descriptor = new ReferenceMethodDescriptor(method, version, timeout, callType);
+				methodDescriptorsByEquals.put(method, descriptor);
+			}
+
+			Map<Method, ReferenceMethodDescriptor> descriptors = new IdentityHashMap<Method, ReferenceMethodDescriptor>(methodDescriptors);
+			descriptors.put(method, descriptor);
+			methodDescriptors = descriptors;
+		}
+		return descriptor;
+	}
+
+
 	// ---------------------- util ----------------------
 	//带有XxlRpcReference注解的属性，像调用本地方法一样，进行调用rpc provider包装处理；
 	public Object getObject() {
-		return Proxy.newProxyInstance(Thread.currentThread()
-				.getContextClassLoader(), new Class[] { iface },
+		// generated stub (javassist), fallback to jdk proxy
+		return ReferenceStubFactory.newInstance(iface,
 				new InvocationHandler() {
 					@Override
 					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
 
-						// method param
-						String className = method.getDeclaringClass().getName();	// iface.getName()
-						String varsion_ = version;
-						String methodName = method.getName();
-						Class<?>[] parameterTypes = method.getParameterTypes();
+						// method param, precomputed descriptor
+						ReferenceMethodDescriptor descriptor = methodDescriptor(method);
+						String className = descriptor.getClassName();	// iface.getName()
+						String methodName = descriptor.getMethodName();
+						Class<?>[] parameterTypes = descriptor.getParameterTypes();
 						Object[] parameters = args;
+						String serviceKey = descriptor.getServiceKey();
+						long timeout = descriptor.getTimeout();
+						CallType callType = descriptor.getCallType();
 
 						// filter for generic
 						//泛化调用
-						if (className.equals(XxlRpcGenericService.class.getName()) && methodName.equals("invoke")) {
+						if (descriptor.isGeneric()) {
 
 							Class<?>[] paramTypes = null;
 							if (args[3]!=null) {
@@ -174,32 +224,42 @@ public class XxlRpcReferenceBean {
 							}
 
 							className = (String) args[0];
-							varsion_ = (String) args[1];
 							methodName = (String) args[2];
 							parameterTypes = paramTypes;
 							parameters = (Object[]) args[4];
+							serviceKey = XxlRpcProviderFactory.makeServiceKey(className, (String) args[1]);
 						}
 
 						// filter method like "Object.toString()"
-						if (className.equals(Object.class.getName())) {
+						if (descriptor.isObjectMethod() || (descriptor.isGeneric() && className.equals(Object.class.getName()))) {
 							logger.info(">>>>>>>>>>> xxl-rpc proxy class-method not support [{}#{}]", className, methodName);
 							throw new XxlRpcException("xxl-rpc proxy class-method not support");
 						}
 
 						// address
 						String finalAddress = address;
+						TreeSet<String> addressSet = null;
 						if (finalAddress==null || finalAddress.trim().length()==0) {
 							if (invokerFactory!=null && invokerFactory.getServiceRegistry()!=null) {
 								// discovery
-								String serviceKey = XxlRpcProviderFactory.makeServiceKey(className, varsion_);
-								TreeSet<String> addressSet = invokerFactory.getServiceRegistry().discovery(serviceKey);
+								addressSet = invokerFactory.getServiceRegistry().discovery(serviceKey);
 								// load balance
 								if (addressSet==null || addressSet.size()==0) {
 									// pass
 								} else if (addressSet.size()==1) {
 									finalAddress = addressSet.first();
 								} else {
-									finalAddress = loadBalance.xxlRpcInvokerRouter.route(serviceKey, addressSet);
+									finalAddress = loadBalance.xxlRpcInvokerRouter.route(serviceKey, addressSet, descriptor.routeKey(args));
+
+									// backpressure, route to another address when saturated
+									if (BackpressurePolicy.ROUTE == invokerFactory.getBackpressurePolicy() && client.isSaturated(finalAddress)) {
+										for (String item : addressSet) {
+											if (!item.equals(finalAddress) && !client.isSaturated(item)) {
+												finalAddress = item;
+												break;
+											}
+										}
+									}
 								}
 
 							}
@@ -210,8 +270,9 @@ public class XxlRpcReferenceBean {
 
 						// request
 						XxlRpcRequest xxlRpcRequest = new XxlRpcRequest();
-	                    xxlRpcRequest.setRequestId(UUID.randomUUID().toString());
+	                    xxlRpcRequest.setRequestId(invokerFactory.nextRequestId());
 	                    xxlRpcRequest.setCreateMillisTime(System.currentTimeMillis());
+	                    xxlRpcRequest.setTimeout((CallType.ONEWAY != callType)?timeout:0);		// deadline, dropped by server when expired
 	                    xxlRpcRequest.setAccessToken(accessToken);
 	                    xxlRpcRequest.setClassName(className);
 	                    xxlRpcRequest.setMethodName(methodName);
@@ -222,18 +283,47 @@ public class XxlRpcReferenceBean {
 						//所有类型的方法都会使用NettyClientHandler中的xxlRpcInvokerFactory.notifyInvokerFuture(xxlRpcResponse.getRequestId(), xxlRpcResponse);
 						//用这个方法，client来处理服务端返回的结果；然后根据不同的callType，进行不同 的返回结果的处理
 
+						//方法返回 CompletableFuture 时，直接返回 CompletableFuture，响应到达时在IO线程（或配置的 executor）中完成，不阻塞调用线程
+						if (descriptor.isCompletableFuture()) {
+							// future-response set
+							CompletableFuture<Object> completableFuture = new CompletableFuture<Object>();
+							XxlRpcFutureResponse futureResponse = new XxlRpcFutureResponse(invokerFactory, xxlRpcRequest, null, completableFuture, timeout);
+							futureResponse.bindRouteFeedback(routeFeedback(serviceKey, addressSet, finalAddress));
+							futureResponse.setHedgePolicy(descriptor.getHedgePolicy());
+							try {
+								client.asyncSend(finalAddress, xxlRpcRequest);
+
+								// hedge, send a copy to another address when slow
+								scheduleHedge(descriptor, futureResponse, serviceKey, addressSet, finalAddress, timeout);
+							} catch (Exception e) {
+								logger.info(">>>>>>>>>>> xxl-rpc, invoke error, address:{}, XxlRpcRequest{}", finalAddress, xxlRpcRequest);
+
+								// future-response remove
+								futureResponse.removeInvokerFuture();
+
+								completableFuture.completeExceptionally((e instanceof XxlRpcException)?e:new XxlRpcException(e));
+							}
+
+							return completableFuture;
+						}
+
 						//同步方法，使用futureResponse实现了Future接口，futureResponse.get(timeout, TimeUnit.MILLISECONDS)；同步阻塞获取结果
 						if (CallType.SYNC == callType) {
-							// future-response set
+							// future-response set (no timer, removed by caller after get)
 							XxlRpcFutureResponse futureResponse = new XxlRpcFutureResponse(invokerFactory, xxlRpcRequest, null);
+							futureResponse.bindRouteFeedback(routeFeedback(serviceKey, addressSet, finalAddress));
+							futureResponse.setHedgePolicy(descriptor.getHedgePolicy());
 							try {
 								// do invoke
 								client.asyncSend(finalAddress, xxlRpcRequest);
 
+								// hedge, send a copy to another address when slow
+								scheduleHedge(descriptor, futureResponse, serviceKey, addressSet, finalAddress, timeout);
+
 								// future get
 								XxlRpcResponse xxlRpcResponse = futureResponse.get(timeout, TimeUnit.MILLISECONDS);
 								if (xxlRpcResponse.getErrorMsg() != null) {
-									throw new XxlRpcException(xxlRpcResponse.getErrorMsg());
+									throw xxlRpcResponse.isOverload()?new XxlRpcOverloadException(xxlRpcResponse.getErrorMsg()):new XxlRpcException(xxlRpcResponse.getErrorMsg());
 								}
 								return xxlRpcResponse.getResult();
 							} catch (Exception e) {
@@ -248,7 +338,9 @@ public class XxlRpcReferenceBean {
 							}
 						} else if (CallType.FUTURE == callType) {
 							// future-response set
-							XxlRpcFutureResponse futureResponse = new XxlRpcFutureResponse(invokerFactory, xxlRpcRequest, null);
+							XxlRpcFutureResponse futureResponse = new XxlRpcFutureResponse(invokerFactory, xxlRpcRequest, null, timeout);
+							futureResponse.bindRouteFeedback(routeFeedback(serviceKey, addressSet, finalAddress));
+							futureResponse.setHedgePolicy(descriptor.getHedgePolicy());
                             try {
 								// invoke future set
 								//新建一个XxlRpcInvokeFuture，进行futureResponse的封装；
@@ -260,6 +352,9 @@ public class XxlRpcReferenceBean {
                                 // do invoke
                                 client.asyncSend(finalAddress, xxlRpcRequest);
 
+								// hedge, send a copy to another address when slow
+								scheduleHedge(descriptor, futureResponse, serviceKey, addressSet, finalAddress, timeout);
+
                                 return null;
                             } catch (Exception e) {
 								logger.info(">>>>>>>>>>> xxl-rpc, invoke error, address:{}, XxlRpcRequest{}", finalAddress, xxlRpcRequest);
@@ -284,7 +379,8 @@ public class XxlRpcReferenceBean {
 							}
 
 							// future-response set
-							XxlRpcFutureResponse futureResponse = new XxlRpcFutureResponse(invokerFactory, xxlRpcRequest, finalInvokeCallback);
+							XxlRpcFutureResponse futureResponse = new XxlRpcFutureResponse(invokerFactory, xxlRpcRequest, finalInvokeCallback, timeout);
+							futureResponse.bindRouteFeedback(routeFeedback(serviceKey, addressSet, finalAddress));
 							try {
 								client.asyncSend(finalAddress, xxlRpcRequest);
 							} catch (Exception e) {
@@ -310,6 +406,107 @@ public class XxlRpcReferenceBean {
 	}
 
 
+	// ---------------------- route feedback ----------------------
+
+	/**
+	 * route feedback of address, only when routed by load balance (discovery, multi address)
+	 */
+	private RouteFeedback routeFeedback(String serviceKey, TreeSet<String> addressSet, String address) {
+		if (addressSet==null || addressSet.size()<2) {
+			return null;
+		}
+		return loadBalance.xxlRpcInvokerRouter.feedback(serviceKey, address);
+	}
+
+
+	// ---------------------- hedge ----------------------
+
+	/**
+	 * schedule hedged request: when primary not answered within hedge delay, send a copy to another address
+	 */
+	private void scheduleHedge(ReferenceMethodDescriptor descriptor, final XxlRpcFutureResponse futureResponse, final String serviceKey,
+							   final TreeSet<String> addressSet, final String address, final long timeout) {
+		final HedgePolicy hedgePolicy = descriptor.getHedgePolicy();
+		if (hedgePolicy == null) {
+			return;
+		}
+		hedgePolicy.onRequest();
+
+		long delay = hedgePolicy.getHedgeDelay();
+		if (addressSet==null || addressSet.size()<2 || delay<=0 || (timeout>0 && delay>=timeout)) {
+			return;
+		}
+
+		invokerFactory.newTimeout(new TimerTask() {
+			@Override
+			public void run(Timeout handle) throws Exception {
+				if (invokerFactory.getInvokerFuture(futureResponse.getRequest().getRequestId()) == null || !hedgePolicy.tryHedge()) {
+					return;		// already answered, or out of budget
+				}
+
+				// send on callback thread pool, not block timer thread (may connect)
+				try {
+					invokerFactory.executeResponseCallback(new Runnable() {
+						@Override
+						public void run() {
+							sendHedge(futureResponse, serviceKey, addressSet, address, timeout);
+						}
+					});
+				} catch (Exception e) {
+					logger.info(">>>>>>>>>>> xxl-rpc, hedge request skipped, {}", e.getMessage());
+				}
+			}
+		}, delay);
+	}
+
+	private void sendHedge(XxlRpcFutureResponse futureResponse, String serviceKey, TreeSet<String> addressSet, String address, long timeout) {
+		XxlRpcRequest primaryRequest = futureResponse.getRequest();
+
+		// another address
+		TreeSet<String> otherAddressSet = new TreeSet<String>(addressSet);
+		otherAddressSet.remove(address);
+		if (otherAddressSet.size() == 0) {
+			return;
+		}
+		String hedgeAddress = (otherAddressSet.size()==1)?otherAddressSet.first():loadBalance.xxlRpcInvokerRouter.route(serviceKey, otherAddressSet);
+
+		// copy request, remaining timeout
+		long remainingTimeout = 0;
+		if (timeout > 0) {
+			remainingTimeout = timeout - (System.currentTimeMillis() - primaryRequest.getCreateMillisTime());
+			if (remainingTimeout <= 0) {
+				return;
+			}
+		}
+		XxlRpcRequest hedgeRequest = new XxlRpcRequest();
+		hedgeRequest.setRequestId(invokerFactory.nextRequestId());
+		hedgeRequest.setCreateMillisTime(primaryRequest.getCreateMillisTime());
+		hedgeRequest.setTimeout(remainingTimeout);
+		hedgeRequest.setAccessToken(primaryRequest.getAccessToken());
+		hedgeRequest.setClassName(primaryRequest.getClassName());
+		hedgeRequest.setMethodName(primaryRequest.getMethodName());
+		hedgeRequest.setParameterTypes(primaryRequest.getParameterTypes());
+		hedgeRequest.setParameters(primaryRequest.getParameters());
+		hedgeRequest.setVersion(primaryRequest.getVersion());
+
+		// bind to primary, abort when primary answered meanwhile
+		XxlRpcFutureResponse hedgeFutureResponse = new XxlRpcFutureResponse(invokerFactory, hedgeRequest, null, remainingTimeout);
+		hedgeFutureResponse.bindRouteFeedback(routeFeedback(serviceKey, addressSet, hedgeAddress));
+		futureResponse.bindHedge(hedgeFutureResponse);
+		if (invokerFactory.getInvokerFuture(primaryRequest.getRequestId()) == null) {
+			hedgeFutureResponse.removeInvokerFuture();
+			return;
+		}
+
+		try {
+			client.asyncSend(hedgeAddress, hedgeRequest);
+		} catch (Exception e) {
+			logger.info(">>>>>>>>>>> xxl-rpc, hedge request error, address:{}, XxlRpcRequest{}", hedgeAddress, hedgeRequest);
+			hedgeFutureResponse.removeInvokerFuture();
+		}
+	}
+
+
 	public Class<?> getObjectType() {
 		return iface;
 	}
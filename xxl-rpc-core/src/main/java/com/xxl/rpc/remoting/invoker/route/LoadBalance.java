@@ -11,7 +11,10 @@ public enum LoadBalance {
     ROUND(new XxlRpcLoadBalanceRoundStrategy()),
     LRU(new XxlRpcLoadBalanceLRUStrategy()),
     LFU(new XxlRpcLoadBalanceLFUStrategy()),
-    CONSISTENT_HASH(new XxlRpcLoadBalanceConsistentHashStrategy());
+    CONSISTENT_HASH(new XxlRpcLoadBalanceConsistentHashStrategy()),
+    CONSISTENT_HASH_ARGUMENT(new XxlRpcLoadBalanceArgumentHashStrategy()),
+    LEAST_PENDING(new XxlRpcLoadBalanceLeastPendingStrategy()),
+    PEAK_EWMA(new XxlRpcLoadBalancePeakEwmaStrategy());
 
 
     public final XxlRpcLoadBalance xxlRpcInvokerRouter;
@@ -0,0 +1,19 @@
+package com.xxl.rpc.remoting.invoker.route;
+
+/**
+ * route feedback, invoke result of routed address, for load aware load balance
+ * 路由反馈：请求完成（响应、超时、失败、取消）时回调一次，用于统计地址延迟、处理中请求数
+ *
+ * @author xxl-rpc contributors
+ */
+public interface RouteFeedback {
+
+    /**
+     * invoke complete, called once
+     *
+     * @param latencyNanos  from send to complete
+     * @param success       false when error response, timeout or cancelled
+     */
+    void onComplete(long latencyNanos, boolean success);
+
+}
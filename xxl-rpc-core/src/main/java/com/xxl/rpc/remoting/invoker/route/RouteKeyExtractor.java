@@ -0,0 +1,19 @@
+package com.xxl.rpc.remoting.invoker.route;
+
+/**
+ * route key extractor, extract entity key from method argument for CONSISTENT_HASH_ARGUMENT
+ * 路由key提取：从方法参数中提取实体key（如 user.getId()），需提供无参构造
+ *
+ * @author xxl-rpc contributors
+ */
+public interface RouteKeyExtractor {
+
+    /**
+     * extract route key
+     *
+     * @param argument  method argument, not null
+     * @return  route key, null means route by service key
+     */
+    String extract(Object argument);
+
+}
@@ -13,4 +13,27 @@ public abstract class XxlRpcLoadBalance {
 
     public abstract String route(String serviceKey, TreeSet<String> addressSet);
 
+    /**
+     * route with route key (method argument, see "@XxlRpcRouteKey"); default ignore route key
+     *
+     * @param serviceKey
+     * @param addressSet
+     * @param routeKey      null if absent
+     * @return
+     */
+    public String route(String serviceKey, TreeSet<String> addressSet, String routeKey) {
+        return route(serviceKey, addressSet);
+    }
+
+    /**
+     * invoke start on routed address, for load aware strategy (outstanding request, latency)
+     *
+     * @param serviceKey
+     * @param address
+     * @return  feedback, called once when invoke complete; null means not need
+     */
+    public RouteFeedback feedback(String serviceKey, String address) {
+        return null;
+    }
+
 }
@@ -0,0 +1,63 @@
+package com.xxl.rpc.remoting.invoker.route.impl;
+
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * address set snapshot, immutable array of discovered address set
+ * 地址快照：发现的地址集合转为数组缓存，仅地址集合变化时重建，路由时避免每次 toArray
+ *
+ * @author xxl-rpc contributors
+ */
+public class AddressSnapshot {
+
+    private final String[] addresses;
+
+    public AddressSnapshot(TreeSet<String> addressSet) {
+        this.addresses = addressSet.toArray(new String[addressSet.size()]);
+    }
+
+    /**
+     * shared array, not modify
+     */
+    public String[] getAddresses() {
+        return addresses;
+    }
+
+    /**
+     * same address set (registry may update set in place, so compare content)
+     *
+     * @param addressSet
+     * @return
+     */
+    public boolean matches(TreeSet<String> addressSet) {
+        if (addresses.length != addressSet.size()) {
+            return false;
+        }
+        int index = 0;
+        for (String address : addressSet) {
+            if (!address.equals(addresses[index++])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * snapshot of address set, cached per service; replaced when address set changed
+     *
+     * @param snapshotMap
+     * @param serviceKey
+     * @param addressSet
+     * @return
+     */
+    public static AddressSnapshot of(ConcurrentMap<String, AddressSnapshot> snapshotMap, String serviceKey, TreeSet<String> addressSet) {
+        AddressSnapshot snapshot = snapshotMap.get(serviceKey);
+        if (snapshot == null || !snapshot.matches(addressSet)) {
+            snapshot = new AddressSnapshot(addressSet);
+            snapshotMap.put(serviceKey, snapshot);
+        }
+        return snapshot;
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.xxl.rpc.remoting.invoker.route.impl;
+
+import java.util.*;
+
+/**
+ * consistent hash ring, immutable, build once per address set
+ * 一致性哈希环：按地址集合构建一次（虚拟节点 hash 排序后存入 long 数组），路由时二分查找；地址集合变化时整体替换
+ *
+ * @author xxl-rpc contributors
+ */
+public class ConsistentHashRing {
+
+    private final AddressSnapshot snapshot;     // address set snapshot, to detect change
+    private final int virtualNodeNum;
+
+    private final long[] nodeHashes;            // sorted virtual node hash
+    private final String[] nodeAddresses;       // address of virtual node, same index
+
+    public ConsistentHashRing(TreeSet<String> addressSet, int virtualNodeNum) {
+        this.snapshot = new AddressSnapshot(addressSet);
+        this.virtualNodeNum = virtualNodeNum;
+
+        // ------A1------A2-------A3------
+        // -----------J1------------------
+        TreeMap<Long, String> addressRing = new TreeMap<Long, String>();
+        for (String address: snapshot.getAddresses()) {
+            for (int i = 0; i < virtualNodeNum; i++) {
+                addressRing.put(hash("SHARD-" + address + "-NODE-" + i), address);
+            }
+        }
+
+        this.nodeHashes = new long[addressRing.size()];
+        this.nodeAddresses = new String[addressRing.size()];
+        int index = 0;
+        for (Map.Entry<Long, String> item : addressRing.entrySet()) {
+            nodeHashes[index] = item.getKey();
+            nodeAddresses[index] = item.getValue();
+            index++;
+        }
+    }
+
+    /**
+     * same address set and virtual node num, ring reusable
+     *
+     * @param addressSet
+     * @param virtualNodeNum
+     * @return
+     */
+    public boolean matches(TreeSet<String> addressSet, int virtualNodeNum) {
+        return this.virtualNodeNum == virtualNodeNum && snapshot.matches(addressSet);
+    }
+
+    /**
+     * select address, first virtual node clockwise from hash
+     *
+     * @param hash
+     * @return  null if ring empty
+     */
+    public String select(long hash) {
+        if (nodeHashes.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(nodeHashes, hash);
+        if (index < 0) {
+            index = -index - 1;
+            if (index == nodeHashes.length) {
+                index = 0;
+            }
+        }
+        return nodeAddresses[index];
+    }
+
+
+    // ---------------------- hash ----------------------
+
+    /**
+     * 64-bit hash on ring, FNV-1a with murmur3 finalizer (fast, non-cryptographic, well distributed)
+     *
+     * @param key
+     * @return
+     */
+    public static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        // murmur3 fmix64
+        hash ^= (hash >>> 33);
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= (hash >>> 33);
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= (hash >>> 33);
+        return hash;
+    }
+
+}
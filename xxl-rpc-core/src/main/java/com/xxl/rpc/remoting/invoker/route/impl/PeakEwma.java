@@ -0,0 +1,104 @@
+package com.xxl.rpc.remoting.invoker.route.impl;
+
+import com.xxl.rpc.remoting.invoker.route.RouteFeedback;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * peak ewma latency of (service, address), lock-free
+ * 峰值EWMA延迟：延迟高于当前值时立即取峰值，否则按时间衰减加权平均；空闲时随时间衰减，慢节点恢复后可重新被选中；
+ * 负载 = 延迟 * (处理中请求数 + 1)
+ *
+ * @author xxl-rpc contributors
+ */
+public class PeakEwma {
+
+    private final AtomicReference<State> state = new AtomicReference<State>(new State(0, System.nanoTime()));
+    private final AtomicInteger pending = new AtomicInteger(0);
+
+    /**
+     * ewma latency (nanos) and its update time, cas together
+     */
+    private static class State {
+        private final double cost;
+        private final long stampNanos;
+
+        private State(double cost, long stampNanos) {
+            this.cost = cost;
+            this.stampNanos = stampNanos;
+        }
+    }
+
+    /**
+     * request start, feedback once when complete
+     *
+     * @param decayNanos
+     * @return
+     */
+    public RouteFeedback start(final long decayNanos) {
+        pending.incrementAndGet();
+        return new RouteFeedback() {
+            @Override
+            public void onComplete(long latencyNanos, boolean success) {
+                pending.decrementAndGet();
+                observe(latencyNanos, success, decayNanos);
+            }
+        };
+    }
+
+    private void observe(long latencyNanos, boolean success, long decayNanos) {
+        long now = System.nanoTime();
+        for (;;) {
+            State current = state.get();
+            double cost = current.cost;
+
+            double newCost;
+            if (latencyNanos > cost) {
+                newCost = latencyNanos;                 // peak
+            } else if (!success) {
+                newCost = cost;                         // failure never lower cost
+            } else {
+                double weight = Math.exp(-(now - current.stampNanos) / (double) decayNanos);
+                newCost = cost * weight + latencyNanos * (1 - weight);
+            }
+
+            if (state.compareAndSet(current, new State(newCost, now))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * load, decayed latency * (pending + 1)
+     *
+     * @param now
+     * @param decayNanos
+     * @param penaltyNanos  latency assumed when no sample yet but request outstanding (finite, more pending more load)
+     * @return
+     */
+    public double load(long now, long decayNanos, long penaltyNanos) {
+        State current = state.get();
+        double cost = current.cost;
+        int pending = this.pending.get();
+        if (cost == 0) {
+            return (pending == 0)?0:(double) penaltyNanos * (pending + 1);
+        }
+
+        // idle decay, toward zero
+        long elapsed = now - current.stampNanos;
+        if (elapsed > 0) {
+            cost *= Math.exp(-elapsed / (double) decayNanos);
+        }
+        return cost * (pending + 1);
+    }
+
+    public double getCost() {
+        return state.get().cost;
+    }
+
+    public int getPending() {
+        return pending.get();
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.xxl.rpc.remoting.invoker.route.impl;
+
+import java.util.TreeSet;
+
+/**
+ * consistent hash by argument (route key, see "@XxlRpcRouteKey")
+ *
+ * requests of the same entity always go to the same provider (affinity), different entities spread over the cluster;
+ * route by service key (same as CONSISTENT_HASH) when route key absent
+ *
+ * @author xxl-rpc contributors
+ */
+public class XxlRpcLoadBalanceArgumentHashStrategy extends XxlRpcLoadBalanceConsistentHashStrategy {
+
+    @Override
+    public String route(String serviceKey, TreeSet<String> addressSet, String routeKey) {
+        if (routeKey == null) {
+            return route(serviceKey, addressSet);
+        }
+        return ring(serviceKey, addressSet).select(ConsistentHashRing.hash(routeKey));
+    }
+
+}
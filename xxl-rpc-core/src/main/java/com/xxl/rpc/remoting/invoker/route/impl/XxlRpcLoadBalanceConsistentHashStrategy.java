@@ -1,11 +1,11 @@
 package com.xxl.rpc.remoting.invoker.route.impl;
 
 import com.xxl.rpc.remoting.invoker.route.XxlRpcLoadBalance;
+import com.xxl.rpc.util.XxlRpcException;
 
-import java.io.UnsupportedEncodingException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * consustent hash
@@ -14,65 +14,52 @@ import java.util.*;
  *      a(*)、LFU(Least Frequently Used)：最不经常使用，频率/次数
  *      b、LRU(Least Recently Used)：最近最久未使用，时间
  *
+ * ring is cached per service, rebuild (and replaced atomically) only when address set changed
+ *
  * @author xuxueli 2018-12-04
  */
 public class XxlRpcLoadBalanceConsistentHashStrategy extends XxlRpcLoadBalance {
 
-    private int VIRTUAL_NODE_NUM = 5;
+    private volatile int virtualNodeNum = 100;
+
+    // serviceKey -> ring of current address set
+    private final ConcurrentMap<String, ConsistentHashRing> ringMap = new ConcurrentHashMap<String, ConsistentHashRing>();
 
     /**
-     * get hash code on 2^32 ring (md5散列的方式计算hash值)
-     * @param key
-     * @return
+     * virtual node num per address, more node more balanced; rings rebuild lazily
+     *
+     * @param virtualNodeNum
      */
-    private long hash(String key) {
-
-        // md5 byte
-        MessageDigest md5;
-        try {
-            md5 = MessageDigest.getInstance("MD5");
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("MD5 not supported", e);
+    public void setVirtualNodeNum(int virtualNodeNum) {
+        if (virtualNodeNum < 1) {
+            throw new XxlRpcException("xxl-rpc consistent hash virtualNodeNum invalid: " + virtualNodeNum);
         }
-        md5.reset();
-        byte[] keyBytes = null;
-        try {
-            keyBytes = key.getBytes("UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException("Unknown string :" + key, e);
-        }
-
-        md5.update(keyBytes);
-        byte[] digest = md5.digest();
-
-        // hash code, Truncate to 32-bits
-        long hashCode = ((long) (digest[3] & 0xFF) << 24)
-                | ((long) (digest[2] & 0xFF) << 16)
-                | ((long) (digest[1] & 0xFF) << 8)
-                | (digest[0] & 0xFF);
-
-        long truncateHashCode = hashCode & 0xffffffffL;
-        return truncateHashCode;
+        this.virtualNodeNum = virtualNodeNum;
     }
 
-    public String doRoute(String serviceKey, TreeSet<String> addressSet) {
+    public int getVirtualNodeNum() {
+        return virtualNodeNum;
+    }
 
-        // ------A1------A2-------A3------
-        // -----------J1------------------
-        TreeMap<Long, String> addressRing = new TreeMap<Long, String>();
-        for (String address: addressSet) {
-            for (int i = 0; i < VIRTUAL_NODE_NUM; i++) {
-                long addressHash = hash("SHARD-" + address + "-NODE-" + i);
-                addressRing.put(addressHash, address);
-            }
+    /**
+     * ring of address set, cached per service
+     *
+     * @param serviceKey
+     * @param addressSet
+     * @return
+     */
+    public ConsistentHashRing ring(String serviceKey, TreeSet<String> addressSet) {
+        int virtualNodeNum = this.virtualNodeNum;
+        ConsistentHashRing ring = ringMap.get(serviceKey);
+        if (ring == null || !ring.matches(addressSet, virtualNodeNum)) {
+            ring = new ConsistentHashRing(addressSet, virtualNodeNum);
+            ringMap.put(serviceKey, ring);
         }
+        return ring;
+    }
 
-        long jobHash = hash(serviceKey);
-        SortedMap<Long, String> lastRing = addressRing.tailMap(jobHash);
-        if (!lastRing.isEmpty()) {
-            return lastRing.get(lastRing.firstKey());
-        }
-        return addressRing.firstEntry().getValue();
+    public String doRoute(String serviceKey, TreeSet<String> addressSet) {
+        return ring(serviceKey, addressSet).select(ConsistentHashRing.hash(serviceKey));
     }
 
     @Override
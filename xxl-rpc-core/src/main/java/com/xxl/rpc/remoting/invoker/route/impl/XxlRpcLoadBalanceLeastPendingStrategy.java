@@ -0,0 +1,45 @@
+package com.xxl.rpc.remoting.invoker.route.impl;
+
+import com.xxl.rpc.remoting.invoker.route.XxlRpcLoadBalance;
+import com.xxl.rpc.remoting.net.common.ConnectClient;
+
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * least pending, power of two choices
+ *
+ * pick two random addresses, route to the one with fewer pending (in-flight) request;
+ * avoid slow (or gc pausing) provider, without herding all requests to the single least loaded one
+ *
+ * pending is counted by connect-client (NETTY、NETTY_HTTP、MINA); same as RANDOM for JETTY
+ *
+ * @author xxl-rpc contributors
+ */
+public class XxlRpcLoadBalanceLeastPendingStrategy extends XxlRpcLoadBalance {
+
+    private final ConcurrentMap<String, AddressSnapshot> snapshotMap = new ConcurrentHashMap<String, AddressSnapshot>();
+
+    @Override
+    public String route(String serviceKey, TreeSet<String> addressSet) {
+        String[] addresses = AddressSnapshot.of(snapshotMap, serviceKey, addressSet).getAddresses();
+        if (addresses.length == 1) {
+            return addresses[0];
+        }
+
+        // two distinct random choices
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(addresses.length);
+        int second = random.nextInt(addresses.length - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        String firstAddress = addresses[first];
+        String secondAddress = addresses[second];
+        return (ConnectClient.getAddressPending(firstAddress) <= ConnectClient.getAddressPending(secondAddress))?firstAddress:secondAddress;
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.xxl.rpc.remoting.invoker.route.impl;
+
+import com.xxl.rpc.remoting.invoker.route.RouteFeedback;
+import com.xxl.rpc.remoting.invoker.route.XxlRpcLoadBalance;
+import com.xxl.rpc.util.XxlRpcException;
+
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * peak ewma, latency aware
+ *
+ * route to the address with lowest load (peak ewma latency * (pending + 1)) of the service;
+ * latency and pending are fed back when invoke complete (response, timeout, fail), bookkeeping is lock-free
+ *
+ * @author xxl-rpc contributors
+ */
+public class XxlRpcLoadBalancePeakEwmaStrategy extends XxlRpcLoadBalance {
+
+    private volatile long decayNanos = TimeUnit.SECONDS.toNanos(10);
+    private volatile long penaltyNanos = TimeUnit.SECONDS.toNanos(1);
+
+    // serviceKey -> address -> peak ewma
+    private final ConcurrentMap<String, ConcurrentMap<String, PeakEwma>> ewmaMap = new ConcurrentHashMap<String, ConcurrentMap<String, PeakEwma>>();
+    // serviceKey -> address snapshot and peak ewma of each address (same index), rebuild when address set changed
+    private final ConcurrentMap<String, ServiceEwma> serviceEwmaMap = new ConcurrentHashMap<String, ServiceEwma>();
+
+    /**
+     * decay time of latency, how fast old latency forgotten
+     *
+     * @param decayTime     ms
+     */
+    public void setDecayTime(long decayTime) {
+        if (decayTime <= 0) {
+            throw new XxlRpcException("xxl-rpc peak ewma decayTime invalid: " + decayTime);
+        }
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(decayTime);
+    }
+
+    /**
+     * latency assumed for address without latency sample yet but request outstanding (e.g. first request not responded),
+     * a large default rtt, load = penalty * (pending + 1)
+     *
+     * @param penaltyTime   ms
+     */
+    public void setPenaltyTime(long penaltyTime) {
+        if (penaltyTime <= 0) {
+            throw new XxlRpcException("xxl-rpc peak ewma penaltyTime invalid: " + penaltyTime);
+        }
+        this.penaltyNanos = TimeUnit.MILLISECONDS.toNanos(penaltyTime);
+    }
+
+    private PeakEwma ewma(String serviceKey, String address) {
+        ConcurrentMap<String, PeakEwma> addressEwmaMap = ewmaMap.get(serviceKey);
+        if (addressEwmaMap == null) {
+            ewmaMap.putIfAbsent(serviceKey, new ConcurrentHashMap<String, PeakEwma>());
+            addressEwmaMap = ewmaMap.get(serviceKey);
+        }
+        PeakEwma ewma = addressEwmaMap.get(address);
+        if (ewma == null) {
+            addressEwmaMap.putIfAbsent(address, new PeakEwma());
+            ewma = addressEwmaMap.get(address);
+        }
+        return ewma;
+    }
+
+    @Override
+    public String route(String serviceKey, TreeSet<String> addressSet) {
+        ServiceEwma serviceEwma = serviceEwmaMap.get(serviceKey);
+        if (serviceEwma == null || !serviceEwma.snapshot.matches(addressSet)) {
+            serviceEwma = new ServiceEwma(new AddressSnapshot(addressSet));
+            for (int i = 0; i < serviceEwma.ewmas.length; i++) {
+                serviceEwma.ewmas[i] = ewma(serviceKey, serviceEwma.snapshot.getAddresses()[i]);
+            }
+            serviceEwmaMap.put(serviceKey, serviceEwma);
+            prune(serviceKey, addressSet);
+        }
+
+        // lowest load, random start for tie
+        String[] addresses = serviceEwma.snapshot.getAddresses();
+        PeakEwma[] ewmas = serviceEwma.ewmas;
+        long now = System.nanoTime();
+        long decayNanos = this.decayNanos;
+        long penaltyNanos = this.penaltyNanos;
+        int start = ThreadLocalRandom.current().nextInt(addresses.length);
+        int best = start;
+        double bestLoad = Double.MAX_VALUE;
+        for (int i = 0; i < addresses.length; i++) {
+            int index = (start + i) % addresses.length;
+            double load = ewmas[index].load(now, decayNanos, penaltyNanos);
+            if (load < bestLoad) {
+                bestLoad = load;
+                best = index;
+            }
+        }
+        return addresses[best];
+    }
+
+    /**
+     * remove peak ewma of address not in address set any more; keep in-flight one (may be excluded by a subset route, like hedge)
+     */
+    private void prune(String serviceKey, TreeSet<String> addressSet) {
+        ConcurrentMap<String, PeakEwma> addressEwmaMap = ewmaMap.get(serviceKey);
+        if (addressEwmaMap == null || addressEwmaMap.size() <= addressSet.size()) {
+            return;
+        }
+        for (Map.Entry<String, PeakEwma> entry : addressEwmaMap.entrySet()) {
+            if (!addressSet.contains(entry.getKey()) && entry.getValue().getPending() == 0) {
+                addressEwmaMap.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public RouteFeedback feedback(String serviceKey, String address) {
+        return ewma(serviceKey, address).start(decayNanos);
+    }
+
+    private static class ServiceEwma {
+        private final AddressSnapshot snapshot;
+        private final PeakEwma[] ewmas;
+
+        private ServiceEwma(AddressSnapshot snapshot) {
+            this.snapshot = snapshot;
+            this.ewmas = new PeakEwma[snapshot.getAddresses().length];
+        }
+    }
+
+}
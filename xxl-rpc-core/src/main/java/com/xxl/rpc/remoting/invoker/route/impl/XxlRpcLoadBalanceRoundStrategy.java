@@ -2,42 +2,52 @@ package com.xxl.rpc.remoting.invoker.route.impl;
 
 import com.xxl.rpc.remoting.invoker.route.XxlRpcLoadBalance;
 
-import java.util.Random;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * round
  *
+ * per service atomic counter over cached address array (refresh only when address set changed), exact round under concurrency
+ *
  * @author xuxueli 2018-12-04
  */
 public class XxlRpcLoadBalanceRoundStrategy extends XxlRpcLoadBalance {
 
-    private ConcurrentMap<String, Integer> routeCountEachJob = new ConcurrentHashMap<String, Integer>();
-    private long CACHE_VALID_TIME = 0;
-    private int count(String serviceKey) {
-        // cache clear
-        if (System.currentTimeMillis() > CACHE_VALID_TIME) {
-            routeCountEachJob.clear();
-            CACHE_VALID_TIME = System.currentTimeMillis() + 24*60*60*1000;
-        }
+    private final ConcurrentMap<String, Round> roundMap = new ConcurrentHashMap<String, Round>();
 
-        // count++
-        Integer count = routeCountEachJob.get(serviceKey);
-        count = (count==null || count>1000000)?(new Random().nextInt(100)):++count;  // 初始化时主动Random一次，缓解首次压力
-        routeCountEachJob.put(serviceKey, count);
-        return count;
+    private Round round(String serviceKey) {
+        Round round = roundMap.get(serviceKey);
+        if (round == null) {
+            roundMap.putIfAbsent(serviceKey, new Round());
+            round = roundMap.get(serviceKey);
+        }
+        return round;
     }
 
     @Override
     public String route(String serviceKey, TreeSet<String> addressSet) {
-        // arr
-        String[] addressArr = addressSet.toArray(new String[addressSet.size()]);
+        Round round = round(serviceKey);
+
+        // arr, refresh when address set changed
+        AddressSnapshot snapshot = round.snapshot;
+        if (snapshot == null || !snapshot.matches(addressSet)) {
+            snapshot = new AddressSnapshot(addressSet);
+            round.snapshot = snapshot;
+        }
+        String[] addressArr = snapshot.getAddresses();
 
         // round
-        String finalAddress = addressArr[count(serviceKey)%addressArr.length];
-        return finalAddress;
+        long count = round.counter.getAndIncrement() & Long.MAX_VALUE;
+        return addressArr[(int) (count % addressArr.length)];
+    }
+
+    private static class Round {
+        private final AtomicLong counter = new AtomicLong(ThreadLocalRandom.current().nextInt(100));    // 初始化时主动Random一次，缓解首次压力
+        private volatile AddressSnapshot snapshot;
     }
 
 }
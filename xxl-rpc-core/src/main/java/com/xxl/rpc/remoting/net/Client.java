@@ -35,4 +35,14 @@ public abstract class Client {
 	 */
 	public abstract void asyncSend(String address, XxlRpcRequest xxlRpcRequest) throws Exception;
 
+	/**
+	 * address saturated (backpressure), for ROUTE policy; default false
+	 *
+	 * @param address
+	 * @return
+	 */
+	public boolean isSaturated(String address) {
+		return false;
+	}
+
 }
@@ -0,0 +1,41 @@
+package com.xxl.rpc.remoting.net.common;
+
+/**
+ * backpressure policy, when connection saturated (for NETTY、NETTY_HTTP、MINA)
+ * 连接饱和（处理中请求数达到上限，或写缓冲超过高水位）时的处理策略
+ *
+ * @author xxl-rpc contributors
+ */
+public enum BackpressurePolicy {
+
+    /**
+     * no backpressure, send regardless of saturation (default)
+     */
+    NONE,
+
+    /**
+     * block caller until connection not saturated, at most request timeout
+     */
+    BLOCK,
+
+    /**
+     * fail fast
+     */
+    FAIL_FAST,
+
+    /**
+     * route to another address not saturated, fail fast when all saturated
+     */
+    ROUTE;
+
+
+    public static BackpressurePolicy match(String name, BackpressurePolicy defaultPolicy) {
+        for (BackpressurePolicy item : BackpressurePolicy.values()) {
+            if (item.name().equals(name)) {
+                return item;
+            }
+        }
+        return defaultPolicy;
+    }
+
+}
@@ -3,13 +3,22 @@ package com.xxl.rpc.remoting.net.common;
 import com.xxl.rpc.remoting.invoker.XxlRpcInvokerFactory;
 import com.xxl.rpc.remoting.invoker.reference.XxlRpcReferenceBean;
 import com.xxl.rpc.remoting.net.params.BaseCallback;
+import com.xxl.rpc.remoting.net.params.XxlRpcFutureResponse;
 import com.xxl.rpc.remoting.net.params.XxlRpcRequest;
+import com.xxl.rpc.remoting.net.params.XxlRpcResponse;
 import com.xxl.rpc.serialize.Serializer;
+import com.xxl.rpc.util.ThrowableUtil;
+import com.xxl.rpc.util.XxlRpcException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 客户端链接抽象类
@@ -26,9 +35,46 @@ public abstract class ConnectClient {
     public abstract void close();
 
     public abstract boolean isValidate();
-    //sync 同步发送
+
+    /**
+     * writable, false when write buffer above high water mark (not flushed to socket yet)
+     *
+     * @return
+     */
+    public boolean isWritable() {
+        return true;
+    }
+
+    /**
+     * saturated, pending request reach max, or not writable
+     *
+     * @param maxPending    0 means no limit
+     * @return
+     */
+    public boolean isSaturated(int maxPending) {
+        return (maxPending>0 && pending.get()>=maxPending) || !isWritable();
+    }
+
+    //async 异步发送，写失败时通过 notifySendFail 通知 future-response
     public abstract void send(XxlRpcRequest xxlRpcRequest) throws Exception ;
 
+    /**
+     * notify future-response fail, when async send fail
+     *
+     * @param xxlRpcInvokerFactory
+     * @param xxlRpcRequest
+     * @param cause
+     */
+    protected static void notifySendFail(XxlRpcInvokerFactory xxlRpcInvokerFactory, XxlRpcRequest xxlRpcRequest, Throwable cause) {
+        logger.info(">>>>>>>>>>> xxl-rpc, remoting request send error, XxlRpcRequest{}", xxlRpcRequest);
+
+        XxlRpcResponse xxlRpcResponse = new XxlRpcResponse();
+        xxlRpcResponse.setRequestId(xxlRpcRequest.getRequestId());
+        xxlRpcResponse.setErrorMsg(ThrowableUtil.toString(cause));
+
+        xxlRpcInvokerFactory.notifyInvokerFuture(xxlRpcResponse.getRequestId(), xxlRpcResponse);
+    }
+
 
     // ---------------------- client pool map ----------------------
 
@@ -42,6 +88,19 @@ public abstract class ConnectClient {
         // client pool	[tips03 : may save 35ms/100invoke if move it to constructor, but it is necessary. cause by ConcurrentHashMap.get]
         ConnectClient clientPool = ConnectClient.getPool(address, connectClientImpl, xxlRpcReferenceBean);
 
+        // backpressure, when connection saturated
+        XxlRpcInvokerFactory invokerFactory = xxlRpcReferenceBean.getInvokerFactory();
+        if (BackpressurePolicy.NONE != invokerFactory.getBackpressurePolicy()
+                && clientPool.isSaturated(invokerFactory.getMaxPendingPerConnection())) {
+            awaitNotSaturated(clientPool, address, xxlRpcRequest, xxlRpcReferenceBean);
+        }
+
+        // pending, bind to future-response, release when future-response removed (bind ignored if already removed, e.g. timeout while BLOCK wait)
+        XxlRpcFutureResponse futureResponse = xxlRpcReferenceBean.getInvokerFactory().getInvokerFuture(xxlRpcRequest.getRequestId());
+        if (futureResponse != null) {
+            futureResponse.bindPending(clientPool);
+        }
+
         try {
             // do invoke
             clientPool.send(xxlRpcRequest);
@@ -51,12 +110,154 @@ public abstract class ConnectClient {
 
     }
 
-    private static volatile ConcurrentMap<String, ConnectClient> connectClientMap;        // (static) alread addStopCallBack
+    /**
+     * BLOCK: wait until not saturated (signaled by pending release / writability change), at most request timeout;
+     * other policy (FAIL_FAST, ROUTE when no other address): fail fast
+     */
+    private static void awaitNotSaturated(ConnectClient clientPool, String address, XxlRpcRequest xxlRpcRequest,
+                                          XxlRpcReferenceBean xxlRpcReferenceBean) {
+        XxlRpcInvokerFactory invokerFactory = xxlRpcReferenceBean.getInvokerFactory();
+        int maxPending = invokerFactory.getMaxPendingPerConnection();
+
+        long timeout = (xxlRpcRequest.getTimeout()>0)?xxlRpcRequest.getTimeout():xxlRpcReferenceBean.getTimeout();
+        if (BackpressurePolicy.BLOCK==invokerFactory.getBackpressurePolicy() && timeout>0) {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(timeout);
+            boolean saturated;
+            clientPool.saturationLock.lock();
+            try {
+                clientPool.saturationWaiters++;
+                // check under lock, result decides (not re-check after unlock, slot may be taken by other sender meanwhile)
+                while ((saturated = clientPool.isSaturated(maxPending)) && clientPool.isValidate() && nanos>0) {
+                    nanos = clientPool.notSaturated.awaitNanos(nanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new XxlRpcException("xxl-rpc client backpressure wait interrupted, address:" + address);
+            } finally {
+                clientPool.saturationWaiters--;
+                clientPool.saturationLock.unlock();
+            }
+            if (!saturated) {
+                return;
+            }
+        }
+
+        throw new XxlRpcException("xxl-rpc client backpressure, connection saturated, address:"+ address
+                +", pending:"+ clientPool.getPending() +", maxPending:"+ maxPending +", writable:"+ clientPool.isWritable());
+    }
+
+    // BLOCK backpressure waiters, signaled when pending released or writable again (or connection closed)
+    private final ReentrantLock saturationLock = new ReentrantLock();
+    private final Condition notSaturated = saturationLock.newCondition();
+    private volatile int saturationWaiters = 0;         // guarded by saturationLock, read without lock to skip signal when no waiter
+
+    /**
+     * signal all BLOCK waiters, when writability changed or connection closed
+     */
+    public void signalNotSaturated() {
+        signalNotSaturated(true);
+    }
+
+    /**
+     * @param all   true: wake all waiters (writability changed, connection closed); false: wake one waiter (one pending released, one slot free)
+     */
+    private void signalNotSaturated(boolean all) {
+        if (saturationWaiters == 0) {
+            return;
+        }
+        saturationLock.lock();
+        try {
+            if (all) {
+                notSaturated.signalAll();
+            } else {
+                notSaturated.signal();
+            }
+        } finally {
+            saturationLock.unlock();
+        }
+    }
+
+    /**
+     * address saturated, all connections of address created and saturated
+     *
+     * @param address
+     * @param invokerFactory
+     * @return
+     */
+    public static boolean isSaturated(String address, XxlRpcInvokerFactory invokerFactory) {
+        if (connectClientMap == null) {
+            return false;
+        }
+        AtomicReferenceArray<ConnectClient> clients = connectClientMap.get(address);
+        if (clients == null) {
+            return false;
+        }
+        int maxPending = invokerFactory.getMaxPendingPerConnection();
+        for (int i = 0; i < clients.length(); i++) {
+            ConnectClient item = clients.get(i);
+            if (item==null || !item.isValidate() || !item.isSaturated(maxPending)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // pending request count of this client, for LEAST_PENDING select
+    private final AtomicInteger pending = new AtomicInteger(0);
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * request sent by this client, in flight until future-response removed
+     */
+    public void acquirePending() {
+        pending.incrementAndGet();
+        addressPending.incrementAndGet();
+    }
+
+    /**
+     * future-response removed (response, timeout, send fail)
+     */
+    public void releasePending() {
+        pending.decrementAndGet();
+        addressPending.decrementAndGet();
+        signalNotSaturated(false);
+    }
+
+    // pending request count of address (all connections), for LEAST_PENDING load balance
+    private static final ConcurrentMap<String, AtomicInteger> addressPendingMap = new ConcurrentHashMap<String, AtomicInteger>();
+    private AtomicInteger addressPending;
+
+    /**
+     * pending request count of address, all connections of address
+     *
+     * @param address
+     * @return
+     */
+    public static int getAddressPending(String address) {
+        AtomicInteger addressPending = addressPendingMap.get(address);
+        return (addressPending!=null)?addressPending.get():0;
+    }
+
+    private static AtomicInteger addressPending(String address) {
+        AtomicInteger addressPending = addressPendingMap.get(address);
+        if (addressPending == null) {
+            addressPendingMap.putIfAbsent(address, new AtomicInteger(0));
+            addressPending = addressPendingMap.get(address);
+        }
+        return addressPending;
+    }
+
+    // address -> connections of address (connectionsPerAddress), indexed by connection, no key build per send
+    private static volatile ConcurrentMap<String, AtomicReferenceArray<ConnectClient>> connectClientMap;        // (static) alread addStopCallBack
     //客户端链接 在connectClientMap中进行更新，防止多线程更新，根据address进行 加锁
     private static volatile ConcurrentMap<String, Object> connectClientLockMap = new ConcurrentHashMap<>();
+    // round robin counter, for ROUND select
+    private static final AtomicInteger roundCounter = new AtomicInteger(0);
 
 
-    //同步初始化ConnectClient容器 connectClientMap；并从中获取一个ConnectClient
+    //同步初始化ConnectClient容器 connectClientMap；并从中选择一个ConnectClient（单地址可持有多个连接，按 index 存放）
     private static ConnectClient getPool(String address, Class<? extends ConnectClient> connectClientImpl,
                                          final XxlRpcReferenceBean xxlRpcReferenceBean) throws Exception {
 
@@ -65,17 +266,21 @@ public abstract class ConnectClient {
             synchronized (ConnectClient.class) {
                 if (connectClientMap == null) {
                     // init
-                    connectClientMap = new ConcurrentHashMap<String, ConnectClient>();
+                    connectClientMap = new ConcurrentHashMap<String, AtomicReferenceArray<ConnectClient>>();
                     // stop callback 清除客户端
                     xxlRpcReferenceBean.getInvokerFactory().addStopCallBack(new BaseCallback() {
                         @Override
                         public void run() throws Exception {
                             if (connectClientMap.size() > 0) {
                                 for (String key: connectClientMap.keySet()) {
-                                    //key 是一个 client address 链接的地址；
-                                    //一个address代表一个链接
-                                    ConnectClient clientPool = connectClientMap.get(key);
-                                    clientPool.close();
+                                    //key 是一个 address，对应该地址的全部链接
+                                    AtomicReferenceArray<ConnectClient> clients = connectClientMap.get(key);
+                                    for (int i = 0; i < clients.length(); i++) {
+                                        ConnectClient clientPool = clients.get(i);
+                                        if (clientPool != null) {
+                                            clientPool.close();
+                                        }
+                                    }
                                 }
                                 connectClientMap.clear();
                             }
@@ -85,8 +290,38 @@ public abstract class ConnectClient {
             }
         }
 
+        // connections of address
+        XxlRpcInvokerFactory invokerFactory = xxlRpcReferenceBean.getInvokerFactory();
+        AtomicReferenceArray<ConnectClient> clients = connectClientMap.get(address);
+        if (clients == null) {
+            connectClientMap.putIfAbsent(address, new AtomicReferenceArray<ConnectClient>(Math.max(1, invokerFactory.getConnectionsPerAddress())));
+            clients = connectClientMap.get(address);
+        }
+
+        // select connection index
+        int connections = clients.length();
+        int index = 0;
+        if (connections > 1) {
+            if (ConnectionSelect.LEAST_PENDING == invokerFactory.getConnectionSelect()) {
+                int minPending = Integer.MAX_VALUE;
+                for (int i = 0; i < connections; i++) {
+                    ConnectClient item = clients.get(i);
+                    int itemPending = (item!=null && item.isValidate())?item.getPending():0;   // not created yet, treat as idle
+                    if (itemPending < minPending) {
+                        minPending = itemPending;
+                        index = i;
+                        if (minPending == 0) {
+                            break;
+                        }
+                    }
+                }
+            } else {
+                index = (roundCounter.getAndIncrement() & Integer.MAX_VALUE) % connections;
+            }
+        }
+
         // get-valid client
-        ConnectClient connectClient = connectClientMap.get(address);
+        ConnectClient connectClient = clients.get(index);
         if (connectClient!=null && connectClient.isValidate()) {
             return connectClient;
         }
@@ -102,7 +337,7 @@ public abstract class ConnectClient {
         synchronized (clientLock) {
 
             // get-valid client, avlid repeat
-            connectClient = connectClientMap.get(address);
+            connectClient = clients.get(index);
             if (connectClient!=null && connectClient.isValidate()) {
                 return connectClient;
             }
@@ -110,15 +345,16 @@ public abstract class ConnectClient {
             // remove old
             if (connectClient != null) {
                 connectClient.close();
-                connectClientMap.remove(address);
+                clients.set(index, null);
             }
 
             // set pool
             ConnectClient connectClient_new = connectClientImpl.newInstance();
+            connectClient_new.addressPending = addressPending(address);
             try {
                 //客户端链接初始化
                 connectClient_new.init(address, xxlRpcReferenceBean.getSerializer(), xxlRpcReferenceBean.getInvokerFactory());
-                connectClientMap.put(address, connectClient_new);
+                clients.set(index, connectClient_new);
             } catch (Exception e) {
                 connectClient_new.close();
                 throw e;
@@ -0,0 +1,31 @@
+package com.xxl.rpc.remoting.net.common;
+
+/**
+ * connection select, when multiple connections per address (for NETTY、NETTY_HTTP、MINA)
+ * 单地址多连接时，连接的选择策略
+ *
+ * @author xxl-rpc contributors
+ */
+public enum ConnectionSelect {
+
+    /**
+     * round robin
+     */
+    ROUND,
+
+    /**
+     * connection with least pending request
+     */
+    LEAST_PENDING;
+
+
+    public static ConnectionSelect match(String name, ConnectionSelect defaultSelect) {
+        for (ConnectionSelect item : ConnectionSelect.values()) {
+            if (item.name().equals(name)) {
+                return item;
+            }
+        }
+        return defaultSelect;
+    }
+
+}
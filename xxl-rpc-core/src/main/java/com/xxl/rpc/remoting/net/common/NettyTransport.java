@@ -0,0 +1,97 @@
+package com.xxl.rpc.remoting.net.common;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * netty transport (for NETTY、NETTY_HTTP)
+ * netty 传输层选型：native epoll（linux，边缘触发，更少的 selector 垃圾）或 jdk nio
+ *
+ * @author xxl-rpc contributors
+ */
+public enum NettyTransport {
+
+    /**
+     * native epoll when available (linux), otherwise nio
+     */
+    AUTO,
+
+    /**
+     * jdk nio
+     */
+    NIO,
+
+    /**
+     * native epoll, fallback to nio when not available
+     */
+    EPOLL;
+
+
+    private static final Logger logger = LoggerFactory.getLogger(NettyTransport.class);
+    private static final AtomicBoolean epollUnavailableWarned = new AtomicBoolean(false);
+
+    /**
+     * resolve real transport, AUTO/EPOLL fallback to NIO when native epoll not available
+     * (native library from optional dependency "netty-transport-native-epoll", classifier linux-x86_64)
+     *
+     * @return
+     */
+    public NettyTransport resolve() {
+        if (this == NIO) {
+            return NIO;
+        }
+        if (Epoll.isAvailable()) {
+            return EPOLL;
+        }
+        // EPOLL requested explicitly, warn once
+        if (this==EPOLL && epollUnavailableWarned.compareAndSet(false, true)) {
+            logger.warn(">>>>>>>>>>> xxl-rpc, netty transport EPOLL not available, fallback to NIO.", Epoll.unavailabilityCause());
+        }
+        return NIO;
+    }
+
+    public EventLoopGroup newEventLoopGroup(int nThreads, ThreadFactory threadFactory) {
+        if (resolve() == EPOLL) {
+            return new EpollEventLoopGroup(nThreads, threadFactory);
+        }
+        return new NioEventLoopGroup(nThreads, threadFactory);
+    }
+
+    public Class<? extends ServerChannel> serverChannelClass() {
+        if (resolve() == EPOLL) {
+            return EpollServerSocketChannel.class;
+        }
+        return NioServerSocketChannel.class;
+    }
+
+    public Class<? extends Channel> channelClass() {
+        if (resolve() == EPOLL) {
+            return EpollSocketChannel.class;
+        }
+        return NioSocketChannel.class;
+    }
+
+
+    public static NettyTransport match(String name, NettyTransport defaultTransport) {
+        for (NettyTransport item : NettyTransport.values()) {
+            if (item.name().equals(name)) {
+                return item;
+            }
+        }
+        return defaultTransport;
+    }
+
+}
@@ -10,12 +10,18 @@ import org.eclipse.jetty.server.handler.AbstractHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 /**
  * jetty handler
@@ -24,6 +30,9 @@ import java.io.OutputStream;
 public class JettyServerHandler extends AbstractHandler {
 	private static Logger logger = LoggerFactory.getLogger(JettyServerHandler.class);
 
+	// async request timeout (ms) when request without timeout (ONEWAY, old client), not hold jetty request forever
+	private static final long DEFAULT_ASYNC_TIMEOUT = 60 * 1000;
+
 
 	private XxlRpcProviderFactory xxlRpcProviderFactory;
 	public JettyServerHandler(final XxlRpcProviderFactory xxlRpcProviderFactory) {
@@ -32,7 +41,7 @@ public class JettyServerHandler extends AbstractHandler {
 
 
 	@Override
-	public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException, ServletException {
+	public void handle(String target, final Request baseRequest, final HttpServletRequest request, final HttpServletResponse response) throws IOException, ServletException {
 
 		if ("/services".equals(target)) {	// services mapping
 
@@ -56,14 +65,71 @@ public class JettyServerHandler extends AbstractHandler {
 				return;
 			}
 
-			// invoke
-			XxlRpcResponse xxlRpcResponse = xxlRpcProviderFactory.invokeService(xxlRpcRequest);
+			// arrive time from request timestamp (before queue in jetty thread pool)
+			long arriveMillisTime = baseRequest.getTimeStamp();
+
+			// do invoke, on jetty thread (concurrency limit, overload response when rejected)
+			CompletableFuture<XxlRpcResponse> responseFuture = xxlRpcProviderFactory.execute(xxlRpcRequest, arriveMillisTime);
+
+			// sync service, response-serialize + response-write on jetty thread
+			if (responseFuture.isDone()) {
+				byte[] responseBytes = xxlRpcProviderFactory.getSerializer().serialize(responseFuture.join());
+				writeResponse(baseRequest, response, responseBytes);
+				return;
+			}
+
+			// async service, release jetty thread, response when complete
+			baseRequest.setHandled(true);
+			final AsyncContext asyncContext = request.startAsync();
+			final AtomicBoolean responded = new AtomicBoolean(false);		// response once, service complete or container timeout
+
+			// container timeout, backstop of provider deadline (request timeout), or bounded default when request without timeout
+			asyncContext.setTimeout((xxlRpcRequest.getTimeout()>0)?xxlRpcRequest.getTimeout():DEFAULT_ASYNC_TIMEOUT);
+			final XxlRpcRequest finalXxlRpcRequest = xxlRpcRequest;
+			asyncContext.addListener(new AsyncListener() {
+				@Override
+				public void onTimeout(AsyncEvent event) throws IOException {
+					XxlRpcResponse timeoutResponse = new XxlRpcResponse();
+					timeoutResponse.setRequestId(finalXxlRpcRequest.getRequestId());
+					timeoutResponse.setErrorMsg("The request timeout, async service not complete in " + asyncContext.getTimeout() + "ms on server.");
+					writeAsyncResponse(asyncContext, responded, baseRequest, response, timeoutResponse);
+				}
+				@Override
+				public void onComplete(AsyncEvent event) throws IOException {
+				}
+				@Override
+				public void onError(AsyncEvent event) throws IOException {
+				}
+				@Override
+				public void onStartAsync(AsyncEvent event) throws IOException {
+				}
+			});
+
+			responseFuture.thenAccept(new Consumer<XxlRpcResponse>() {
+				@Override
+				public void accept(XxlRpcResponse xxlRpcResponse) {
+					writeAsyncResponse(asyncContext, responded, baseRequest, response, xxlRpcResponse);
+				}
+			});
+		}
+
+	}
 
-			// response-serialize + response-write
+	/**
+	 * write async response once, and complete async context
+	 */
+	private void writeAsyncResponse(AsyncContext asyncContext, AtomicBoolean responded, Request baseRequest, HttpServletResponse response, XxlRpcResponse xxlRpcResponse) {
+		if (!responded.compareAndSet(false, true)) {
+			return;
+		}
+		try {
 			byte[] responseBytes = xxlRpcProviderFactory.getSerializer().serialize(xxlRpcResponse);
 			writeResponse(baseRequest, response, responseBytes);
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		} finally {
+			asyncContext.complete();
 		}
-
 	}
 
 	/**
@@ -1,6 +1,7 @@
 package com.xxl.rpc.remoting.net.impl.mina.client;
 
 import com.xxl.rpc.remoting.invoker.XxlRpcInvokerFactory;
+import com.xxl.rpc.remoting.net.common.ConnectClient;
 import com.xxl.rpc.remoting.net.params.XxlRpcResponse;
 import org.apache.mina.core.service.IoHandlerAdapter;
 import org.apache.mina.core.session.IdleStatus;
@@ -17,8 +18,10 @@ public class MinaClientHandler extends IoHandlerAdapter {
 
 
 	private XxlRpcInvokerFactory xxlRpcInvokerFactory;
-	public MinaClientHandler(final XxlRpcInvokerFactory xxlRpcInvokerFactory) {
+	private ConnectClient connectClient;
+	public MinaClientHandler(final XxlRpcInvokerFactory xxlRpcInvokerFactory, final ConnectClient connectClient) {
 		this.xxlRpcInvokerFactory = xxlRpcInvokerFactory;
+		this.connectClient = connectClient;
 	}
 
 
@@ -30,6 +33,17 @@ public class MinaClientHandler extends IoHandlerAdapter {
 		xxlRpcInvokerFactory.notifyInvokerFuture(xxlRpcResponse.getRequestId(), xxlRpcResponse);
 	}
 
+	@Override
+	public void messageSent(IoSession session, Object message) throws Exception {
+		// scheduled write bytes decreased, wake backpressure waiters
+		connectClient.signalNotSaturated();
+	}
+
+	@Override
+	public void sessionClosed(IoSession session) throws Exception {
+		connectClient.signalNotSaturated();
+	}
+
 	@Override
 	public void exceptionCaught(IoSession session, Throwable cause) throws Exception {
 		//super.exceptionCaught(session, cause);
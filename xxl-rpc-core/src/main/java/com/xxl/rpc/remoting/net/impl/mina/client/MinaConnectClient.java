@@ -30,6 +30,7 @@ public class MinaConnectClient extends ConnectClient {
 
 	private NioSocketConnector connector;
 	private IoSession ioSession;
+	private int writeBufferHighWaterMark;
 
 
 	@Override
@@ -39,6 +40,7 @@ public class MinaConnectClient extends ConnectClient {
 		String host = (String) array[0];
 		int port = (int) array[1];
 
+		this.writeBufferHighWaterMark = xxlRpcInvokerFactory.getWriteBufferHighWaterMark();
 
 		connector = new NioSocketConnector();
 		connector.getFilterChain().addLast("codec", new ProtocolCodecFilter(new ProtocolCodecFactory() {
@@ -51,7 +53,7 @@ public class MinaConnectClient extends ConnectClient {
 				return new MinaDecoder(XxlRpcResponse.class, serializer);
 			}
 		}));
-		connector.setHandler(new MinaClientHandler(xxlRpcInvokerFactory));
+		connector.setHandler(new MinaClientHandler(xxlRpcInvokerFactory, this));
 		connector.setConnectTimeoutMillis(5000);
 		
 		DefaultSocketSessionConfig sessionConfiguration = (DefaultSocketSessionConfig) connector.getSessionConfig();
@@ -83,6 +85,11 @@ public class MinaConnectClient extends ConnectClient {
 	}
 
 
+	@Override
+	public boolean isWritable() {
+		return this.ioSession!=null && this.ioSession.getScheduledWriteBytes() < writeBufferHighWaterMark;
+	}
+
 	@Override
 	public void close() {
 		if (this.ioSession!=null && this.ioSession.isConnected()) {
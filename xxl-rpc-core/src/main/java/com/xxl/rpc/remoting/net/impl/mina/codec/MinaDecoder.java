@@ -26,17 +26,24 @@ public class MinaDecoder extends CumulativeProtocolDecoder {
     	in.mark();	// mark 2 reset, reset call rollback to mark place
     	
         int dataLength = in.getInt();	// data length
-        if (dataLength < in.remaining()) {
+        if (dataLength < 0) {
+            session.closeNow();
             return false;
         }
-        if (dataLength > in.remaining()) {
-            in.reset();
+        if (in.remaining() < dataLength) {
+            in.reset();		// wait for whole frame
+            return false;
+        }
+
+        Object obj = null;
+        if (serializer.isStreamSupported()) {
+            // zero-copy: deserialize from frame slice, without intermediate byte[]
+            obj = serializer.deserialize(in.getSlice(dataLength).asInputStream(), genericClass);
+        } else {
+            byte[] datas = new byte[dataLength];	// data
+            in.get(datas, 0, dataLength);
+            obj = serializer.deserialize(datas, genericClass);
         }
-        
-        byte[] datas = new byte[dataLength];	// data
-        in.get(datas, 0, dataLength);
-        
-        Object obj = serializer.deserialize(datas, genericClass);
         out.write(obj);
     	return true;
     }
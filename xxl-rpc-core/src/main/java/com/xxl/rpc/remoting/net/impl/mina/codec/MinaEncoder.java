@@ -20,14 +20,20 @@ public class MinaEncoder implements ProtocolEncoder {
     @Override
 	public void encode(IoSession session, Object message, ProtocolEncoderOutput out) throws Exception {
     	if (genericClass.isInstance(message)) {
-            byte[] datas = serializer.serialize(message);
-            
             IoBuffer buffer = IoBuffer.allocate(256);
     		buffer.setAutoExpand(true);
     		buffer.setAutoShrink(true);
-    		
-    		buffer.putInt(datas.length);
-    		buffer.put(datas);
+
+    		if (serializer.isStreamSupported()) {
+    			// zero-copy: serialize directly into buffer, then back-fill length
+    			buffer.putInt(0);
+    			serializer.serialize(message, buffer.asOutputStream());
+    			buffer.putInt(0, buffer.position() - 4);
+    		} else {
+    			byte[] datas = serializer.serialize(message);
+    			buffer.putInt(datas.length);
+    			buffer.put(datas);
+    		}
     		
     		buffer.flip();
     		session.write(buffer);
@@ -6,20 +6,16 @@ import com.xxl.rpc.remoting.net.impl.mina.codec.MinaEncoder;
 import com.xxl.rpc.remoting.net.params.XxlRpcRequest;
 import com.xxl.rpc.remoting.net.params.XxlRpcResponse;
 import com.xxl.rpc.remoting.provider.XxlRpcProviderFactory;
-import com.xxl.rpc.util.ThreadPoolUtil;
 import org.apache.mina.core.session.IdleStatus;
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.filter.codec.ProtocolCodecFactory;
 import org.apache.mina.filter.codec.ProtocolCodecFilter;
 import org.apache.mina.filter.codec.ProtocolDecoder;
 import org.apache.mina.filter.codec.ProtocolEncoder;
-import org.apache.mina.filter.executor.ExecutorFilter;
 import org.apache.mina.transport.socket.SocketSessionConfig;
 import org.apache.mina.transport.socket.nio.NioSocketAcceptor;
 
 import java.net.InetSocketAddress;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * mina rpc server
@@ -38,12 +34,11 @@ public class MinaServer extends Server {
 			public void run() {
 
 				// param
-				final ThreadPoolExecutor serverHandlerPool = ThreadPoolUtil.makeServerThreadPool(MinaServer.class.getSimpleName());
 				NioSocketAcceptor acceptor = new NioSocketAcceptor();
 
 				try {
 					// start server
-					acceptor.getFilterChain().addLast("threadPool", new ExecutorFilter(Executors.newCachedThreadPool()));
+					// no ExecutorFilter: decode on io processor (ordered per session), invoke dispatched by provider factory
 					acceptor.getFilterChain().addLast("codec", new ProtocolCodecFilter(new ProtocolCodecFactory() {
 						@Override
 						public ProtocolEncoder getEncoder(IoSession session) throws Exception {
@@ -54,7 +49,7 @@ public class MinaServer extends Server {
 							return new MinaDecoder(XxlRpcRequest.class, xxlRpcProviderFactory.getSerializer());
 						}
 					}));
-					acceptor.setHandler(new MinaServerHandler(xxlRpcProviderFactory, serverHandlerPool));
+					acceptor.setHandler(new MinaServerHandler(xxlRpcProviderFactory));
 					
 					SocketSessionConfig config = acceptor.getSessionConfig();
 					config.setTcpNoDelay(true);
@@ -80,11 +75,6 @@ public class MinaServer extends Server {
 				} finally {
 
 					// stop
-					try {
-						serverHandlerPool.shutdown();
-					} catch (Exception e) {
-						logger.error(e.getMessage(), e);
-					}
 					try {
 						if (acceptor.isActive()) {
 							acceptor.unbind();
@@ -10,7 +10,7 @@ import org.apache.mina.core.session.IoSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
 
 /**
  * mina server handler
@@ -23,12 +23,10 @@ public class MinaServerHandler extends IoHandlerAdapter {
 
 
 	private XxlRpcProviderFactory xxlRpcProviderFactory;
-	private ThreadPoolExecutor serverHandlerPool;
 
 
-	public MinaServerHandler(final XxlRpcProviderFactory xxlRpcProviderFactory, final ThreadPoolExecutor serverHandlerPool) {
+	public MinaServerHandler(final XxlRpcProviderFactory xxlRpcProviderFactory) {
 		this.xxlRpcProviderFactory = xxlRpcProviderFactory;
-		this.serverHandlerPool = serverHandlerPool;
 	}
 
 	@Override
@@ -37,14 +35,15 @@ public class MinaServerHandler extends IoHandlerAdapter {
 		// request
 		final XxlRpcRequest xxlRpcRequest = (XxlRpcRequest) message;
 
+		// arrive time, for request deadline
+		final long arriveMillisTime = System.currentTimeMillis();
+
 		try {
-			// do invoke
-			serverHandlerPool.execute(new Runnable() {
+			// do invoke, on io thread / pool / virtual thread (overload response when rejected)
+			xxlRpcProviderFactory.dispatch(xxlRpcRequest, arriveMillisTime, new Consumer<XxlRpcResponse>() {
 				@Override
-				public void run() {
-					// invoke + response
-					XxlRpcResponse xxlRpcResponse = xxlRpcProviderFactory.invokeService(xxlRpcRequest);
-
+				public void accept(XxlRpcResponse xxlRpcResponse) {
+					// response (async service, response when complete)
 					session.write(xxlRpcResponse);
 				}
 			});
@@ -1,6 +1,7 @@
 package com.xxl.rpc.remoting.net.impl.netty.client;
 
 import com.xxl.rpc.remoting.invoker.XxlRpcInvokerFactory;
+import com.xxl.rpc.remoting.net.common.ConnectClient;
 import com.xxl.rpc.remoting.net.params.XxlRpcResponse;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
@@ -19,8 +20,10 @@ public class NettyClientHandler extends SimpleChannelInboundHandler<XxlRpcRespon
 
 
 	private XxlRpcInvokerFactory xxlRpcInvokerFactory;
-	public NettyClientHandler(final XxlRpcInvokerFactory xxlRpcInvokerFactory) {
+	private ConnectClient connectClient;
+	public NettyClientHandler(final XxlRpcInvokerFactory xxlRpcInvokerFactory, final ConnectClient connectClient) {
 		this.xxlRpcInvokerFactory = xxlRpcInvokerFactory;
+		this.connectClient = connectClient;
 	}
 
 
@@ -31,6 +34,19 @@ public class NettyClientHandler extends SimpleChannelInboundHandler<XxlRpcRespon
 		xxlRpcInvokerFactory.notifyInvokerFuture(xxlRpcResponse.getRequestId(), xxlRpcResponse);
 	}
 
+	@Override
+	public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+		// writable again (below low water mark), wake backpressure waiters
+		connectClient.signalNotSaturated();
+		super.channelWritabilityChanged(ctx);
+	}
+
+	@Override
+	public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+		connectClient.signalNotSaturated();
+		super.channelInactive(ctx);
+	}
+
 	@Override
 	public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
 		logger.error(">>>>>>>>>>> xxl-rpc netty client caught exception", cause);
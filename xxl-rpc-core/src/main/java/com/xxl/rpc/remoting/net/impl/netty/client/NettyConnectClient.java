@@ -10,12 +10,14 @@ import com.xxl.rpc.serialize.Serializer;
 import com.xxl.rpc.util.IpUtil;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.timeout.IdleStateHandler;
 import java.util.concurrent.TimeUnit;
 
@@ -27,8 +29,8 @@ import java.util.concurrent.TimeUnit;
 public class NettyConnectClient extends ConnectClient {
 
 
-    private EventLoopGroup group;
     private Channel channel;
+    private XxlRpcInvokerFactory xxlRpcInvokerFactory;
 
     //初始化一个nettyclient；进行客户端xxlRpcRequest请求处理
     @Override
@@ -38,24 +40,29 @@ public class NettyConnectClient extends ConnectClient {
         String host = (String) array[0];
         int port = (int) array[1];
 
+        this.xxlRpcInvokerFactory = xxlRpcInvokerFactory;
 
-        this.group = new NioEventLoopGroup();
+        EventLoopGroup group = xxlRpcInvokerFactory.getClientEventLoopGroup();      // shared, stop by XxlRpcInvokerFactory
         Bootstrap bootstrap = new Bootstrap();
         bootstrap.group(group)
-                .channel(NioSocketChannel.class)
+                .channel(xxlRpcInvokerFactory.getNettyTransport().channelClass())
                 .handler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     public void initChannel(SocketChannel channel) throws Exception {
+                        if (xxlRpcInvokerFactory.getFlushConsolidation() > 0) {
+                            channel.pipeline().addLast(new FlushConsolidationHandler(xxlRpcInvokerFactory.getFlushConsolidation(), true));    // batch flush, per N writes or per event-loop tick
+                        }
                         channel.pipeline()
                                 .addLast(new IdleStateHandler(0,0,10, TimeUnit.MINUTES))
                                 .addLast(new NettyEncoder(XxlRpcRequest.class, serializer))
                                 .addLast(new NettyDecoder(XxlRpcResponse.class, serializer))
                                 //服务端，进行回应，客户端读取请求返回，并处理，逻辑的封装
-                                .addLast(new NettyClientHandler(xxlRpcInvokerFactory));
+                                .addLast(new NettyClientHandler(xxlRpcInvokerFactory, NettyConnectClient.this));
                     }
                 })
                 .option(ChannelOption.TCP_NODELAY, true)
                 .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(xxlRpcInvokerFactory.getWriteBufferLowWaterMark(), xxlRpcInvokerFactory.getWriteBufferHighWaterMark()))
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000);
         this.channel = bootstrap.connect(host, port).sync().channel();
 
@@ -77,20 +84,30 @@ public class NettyConnectClient extends ConnectClient {
         return false;
     }
 
+    @Override
+    public boolean isWritable() {
+        return this.channel!=null && this.channel.isWritable();
+    }
+
     @Override
     public void close() {
         if (this.channel != null && this.channel.isActive()) {
             this.channel.close();        // if this.channel.isOpen()
         }
-        if (this.group != null && !this.group.isShutdown()) {
-            this.group.shutdownGracefully();
-        }
         logger.debug(">>>>>>>>>>> xxl-rpc netty client close.");
     }
 
 
     @Override
-    public void send(XxlRpcRequest xxlRpcRequest) throws Exception {
-        this.channel.writeAndFlush(xxlRpcRequest).sync();
+    public void send(final XxlRpcRequest xxlRpcRequest) throws Exception {
+        // async write, not wait; write fail will notify future-response
+        this.channel.writeAndFlush(xxlRpcRequest).addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception {
+                if (!future.isSuccess()) {
+                    notifySendFail(xxlRpcInvokerFactory, xxlRpcRequest, future.cause());
+                }
+            }
+        });
     }
 }
@@ -2,6 +2,7 @@ package com.xxl.rpc.remoting.net.impl.netty.codec;
 
 import com.xxl.rpc.serialize.Serializer;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 
@@ -31,11 +32,23 @@ public class NettyDecoder extends ByteToMessageDecoder {
         int dataLength = in.readInt();
         if (dataLength < 0) {
             ctx.close();
+            return;
         }
         if (in.readableBytes() < dataLength) {
             in.resetReaderIndex();
             return;	// fix 1024k buffer splice limix
         }
+
+        if (serializer.isStreamSupported()) {
+            // zero-copy: deserialize from frame slice, without intermediate byte[]
+            ByteBuf frame = in.slice(in.readerIndex(), dataLength);
+            in.skipBytes(dataLength);
+
+            Object obj = serializer.deserialize(new ByteBufInputStream(frame), genericClass);
+            out.add(obj);
+            return;
+        }
+
         byte[] data = new byte[dataLength];
         in.readBytes(data);
 
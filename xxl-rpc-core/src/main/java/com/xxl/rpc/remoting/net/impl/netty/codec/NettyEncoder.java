@@ -1,6 +1,7 @@
 package com.xxl.rpc.remoting.net.impl.netty.codec;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
 
@@ -24,6 +25,15 @@ public class NettyEncoder extends MessageToByteEncoder<Object> {
     @Override
     public void encode(ChannelHandlerContext ctx, Object in, ByteBuf out) throws Exception {
         if (genericClass.isInstance(in)) {
+            if (serializer.isStreamSupported()) {
+                // zero-copy: serialize directly into out, then back-fill length
+                int lengthIndex = out.writerIndex();
+                out.writeInt(0);
+                serializer.serialize(in, new ByteBufOutputStream(out));
+                out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+                return;
+            }
+
             byte[] data = serializer.serialize(in);
             out.writeInt(data.length);
             out.writeBytes(data);
@@ -1,22 +1,22 @@
 package com.xxl.rpc.remoting.net.impl.netty.server;
 
 import com.xxl.rpc.remoting.net.Server;
+import com.xxl.rpc.remoting.net.common.NettyTransport;
 import com.xxl.rpc.remoting.net.impl.netty.codec.NettyDecoder;
 import com.xxl.rpc.remoting.net.impl.netty.codec.NettyEncoder;
 import com.xxl.rpc.remoting.net.params.XxlRpcRequest;
 import com.xxl.rpc.remoting.net.params.XxlRpcResponse;
 import com.xxl.rpc.remoting.provider.XxlRpcProviderFactory;
-import com.xxl.rpc.util.ThreadPoolUtil;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.timeout.IdleStateHandler;
-import java.util.concurrent.ThreadPoolExecutor;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -36,34 +36,46 @@ public class NettyServer extends Server {
             public void run() {
 
                 // param
-                final ThreadPoolExecutor serverHandlerPool = ThreadPoolUtil.makeServerThreadPool(NettyServer.class.getSimpleName());
-                EventLoopGroup bossGroup = new NioEventLoopGroup();
-                EventLoopGroup workerGroup = new NioEventLoopGroup();
+                NettyTransport nettyTransport = xxlRpcProviderFactory.getNettyTransport().resolve();
+                boolean reusePort = nettyTransport==NettyTransport.EPOLL && xxlRpcProviderFactory.getAcceptorThreads()>1;     // SO_REUSEPORT, mult acceptor bind same port
+                EventLoopGroup bossGroup = nettyTransport.newEventLoopGroup(reusePort?xxlRpcProviderFactory.getAcceptorThreads():1, new DefaultThreadFactory("xxl-rpc, NettyServer-bossGroup"));
+                EventLoopGroup workerGroup = nettyTransport.newEventLoopGroup(0, new DefaultThreadFactory("xxl-rpc, NettyServer-workerGroup"));
 
                 try {
                     // start server
                     ServerBootstrap bootstrap = new ServerBootstrap();
                     bootstrap.group(bossGroup, workerGroup)
-                            .channel(NioServerSocketChannel.class)
+                            .channel(nettyTransport.serverChannelClass())
                             .childHandler(new ChannelInitializer<SocketChannel>() {
                                 @Override
                                 public void initChannel(SocketChannel channel) throws Exception {
+                                    if (xxlRpcProviderFactory.getFlushConsolidation() > 0) {
+                                        channel.pipeline().addLast(new FlushConsolidationHandler(xxlRpcProviderFactory.getFlushConsolidation(), true));    // batch flush, per N writes or per event-loop tick
+                                    }
                                     channel.pipeline()
                                             .addLast(new IdleStateHandler(0,0,10, TimeUnit.MINUTES))
                                             .addLast(new NettyDecoder(XxlRpcRequest.class, xxlRpcProviderFactory.getSerializer()))
                                             .addLast(new NettyEncoder(XxlRpcResponse.class, xxlRpcProviderFactory.getSerializer()))
                                             //通过netty server服务,调用自己的请求处理方法,处理方法被 包装到了NettyServerHandler中;
                                             //自己的业务处理逻辑
-                                            .addLast(new NettyServerHandler(xxlRpcProviderFactory, serverHandlerPool));
+                                            .addLast(new NettyServerHandler(xxlRpcProviderFactory));
                                 }
                             })
                             .childOption(ChannelOption.TCP_NODELAY, true)
                             .childOption(ChannelOption.SO_KEEPALIVE, true);
+                    if (reusePort) {
+                        bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+                    }
 
                     // bind
                     ChannelFuture future = bootstrap.bind(xxlRpcProviderFactory.getPort()).sync();
+                    if (reusePort) {
+                        for (int i = 1; i < xxlRpcProviderFactory.getAcceptorThreads(); i++) {
+                            bootstrap.bind(xxlRpcProviderFactory.getPort()).sync();
+                        }
+                    }
 
-                    logger.info(">>>>>>>>>>> xxl-rpc remoting server start success, nettype = {}, port = {}", NettyServer.class.getName(), xxlRpcProviderFactory.getPort());
+                    logger.info(">>>>>>>>>>> xxl-rpc remoting server start success, nettype = {}, port = {}, transport = {}", NettyServer.class.getName(), xxlRpcProviderFactory.getPort(), nettyTransport);
                     onStarted();
 
                     // wait util stop
@@ -78,11 +90,6 @@ public class NettyServer extends Server {
                 } finally {
 
                     // stop
-                    try {
-                        serverHandlerPool.shutdown();    // shutdownNow
-                    } catch (Exception e) {
-                        logger.error(e.getMessage(), e);
-                    }
                     try {
                         workerGroup.shutdownGracefully();
                         bossGroup.shutdownGracefully();
@@ -10,7 +10,7 @@ import io.netty.handler.timeout.IdleStateEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Consumer;
 
 /**
  * netty server handler
@@ -22,25 +22,24 @@ public class NettyServerHandler extends SimpleChannelInboundHandler<XxlRpcReques
 
 
     private XxlRpcProviderFactory xxlRpcProviderFactory;
-    private ThreadPoolExecutor serverHandlerPool;
 
-    public NettyServerHandler(final XxlRpcProviderFactory xxlRpcProviderFactory, final ThreadPoolExecutor serverHandlerPool) {
+    public NettyServerHandler(final XxlRpcProviderFactory xxlRpcProviderFactory) {
         this.xxlRpcProviderFactory = xxlRpcProviderFactory;
-        this.serverHandlerPool = serverHandlerPool;
     }
 
 
     @Override
     public void channelRead0(final ChannelHandlerContext ctx, final XxlRpcRequest xxlRpcRequest) throws Exception {
 
+        // arrive time, for request deadline
+        final long arriveMillisTime = System.currentTimeMillis();
+
         try {
-            // do invoke
-            serverHandlerPool.execute(new Runnable() {
+            // do invoke, on io thread / pool / virtual thread (overload response when rejected)
+            xxlRpcProviderFactory.dispatch(xxlRpcRequest, arriveMillisTime, new Consumer<XxlRpcResponse>() {
                 @Override
-                public void run() {
-                    // invoke + response
-                    XxlRpcResponse xxlRpcResponse = xxlRpcProviderFactory.invokeService(xxlRpcRequest);
-
+                public void accept(XxlRpcResponse xxlRpcResponse) {
+                    // response (async service, response when complete)
                     ctx.writeAndFlush(xxlRpcResponse);
                 }
             });
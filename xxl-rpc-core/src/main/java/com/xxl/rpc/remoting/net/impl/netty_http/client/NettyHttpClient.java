@@ -18,4 +18,9 @@ public class NettyHttpClient extends Client {
         ConnectClient.asyncSend(xxlRpcRequest, address, connectClientImpl, xxlRpcReferenceBean);
     }
 
+    @Override
+    public boolean isSaturated(String address) {
+        return ConnectClient.isSaturated(address, xxlRpcReferenceBean.getInvokerFactory());
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.xxl.rpc.remoting.net.impl.netty_http.client;
 
 import com.xxl.rpc.remoting.invoker.XxlRpcInvokerFactory;
+import com.xxl.rpc.remoting.net.common.ConnectClient;
 import com.xxl.rpc.remoting.net.params.XxlRpcResponse;
 import com.xxl.rpc.serialize.Serializer;
 import com.xxl.rpc.util.XxlRpcException;
@@ -24,9 +25,11 @@ public class NettyHttpClientHandler extends SimpleChannelInboundHandler<FullHttp
 
     private XxlRpcInvokerFactory xxlRpcInvokerFactory;
     private Serializer serializer;
-    public NettyHttpClientHandler(final XxlRpcInvokerFactory xxlRpcInvokerFactory, Serializer serializer) {
+    private ConnectClient connectClient;
+    public NettyHttpClientHandler(final XxlRpcInvokerFactory xxlRpcInvokerFactory, Serializer serializer, final ConnectClient connectClient) {
         this.xxlRpcInvokerFactory = xxlRpcInvokerFactory;
         this.serializer = serializer;
+        this.connectClient = connectClient;
     }
 
 
@@ -61,11 +64,18 @@ public class NettyHttpClientHandler extends SimpleChannelInboundHandler<FullHttp
         ctx.close();
     }
 
-    /*@Override
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        // writable again (below low water mark), wake backpressure waiters
+        connectClient.signalNotSaturated();
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
-        // retry
+        connectClient.signalNotSaturated();
         super.channelInactive(ctx);
-    }*/
+    }
 
     @Override
     public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
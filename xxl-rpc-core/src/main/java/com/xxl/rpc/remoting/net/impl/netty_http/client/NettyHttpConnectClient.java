@@ -7,13 +7,15 @@ import com.xxl.rpc.serialize.Serializer;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.*;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.timeout.IdleStateHandler;
 import java.net.URI;
 import java.net.URL;
@@ -26,12 +28,12 @@ import java.util.concurrent.TimeUnit;
  */
 public class NettyHttpConnectClient extends ConnectClient {
 
-    private EventLoopGroup group;
     private Channel channel;
 
     private Serializer serializer;
     private String address;
     private String host;
+    private XxlRpcInvokerFactory xxlRpcInvokerFactory;
 
     @Override
     public void init(String address, final Serializer serializer, final XxlRpcInvokerFactory xxlRpcInvokerFactory) throws Exception {
@@ -46,24 +48,29 @@ public class NettyHttpConnectClient extends ConnectClient {
         int port = url.getPort()>-1?url.getPort():80;
 
 
-        this.group = new NioEventLoopGroup();
+        EventLoopGroup group = xxlRpcInvokerFactory.getClientEventLoopGroup();      // shared, stop by XxlRpcInvokerFactory
         Bootstrap bootstrap = new Bootstrap();
         bootstrap.group(group)
-                .channel(NioSocketChannel.class)
+                .channel(xxlRpcInvokerFactory.getNettyTransport().channelClass())
                 .handler(new ChannelInitializer<SocketChannel>() {
                     @Override
                     public void initChannel(SocketChannel channel) throws Exception {
+                        if (xxlRpcInvokerFactory.getFlushConsolidation() > 0) {
+                            channel.pipeline().addLast(new FlushConsolidationHandler(xxlRpcInvokerFactory.getFlushConsolidation(), true));    // batch flush, per N writes or per event-loop tick
+                        }
                         channel.pipeline()
                                 .addLast(new IdleStateHandler(0,0,10, TimeUnit.MINUTES))
                                 .addLast(new HttpClientCodec())
                                 .addLast(new HttpObjectAggregator(5*1024*1024))
-                                .addLast(new NettyHttpClientHandler(xxlRpcInvokerFactory, serializer));
+                                .addLast(new NettyHttpClientHandler(xxlRpcInvokerFactory, serializer, NettyHttpConnectClient.this));
                     }
                 })
-                .option(ChannelOption.SO_KEEPALIVE, true);
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(xxlRpcInvokerFactory.getWriteBufferLowWaterMark(), xxlRpcInvokerFactory.getWriteBufferHighWaterMark()));
         this.channel = bootstrap.connect(host, port).sync().channel();
 
         this.serializer = serializer;
+        this.xxlRpcInvokerFactory = xxlRpcInvokerFactory;
 
         // valid
         if (!isValidate()) {
@@ -84,20 +91,22 @@ public class NettyHttpConnectClient extends ConnectClient {
     }
 
 
+    @Override
+    public boolean isWritable() {
+        return this.channel!=null && this.channel.isWritable();
+    }
+
     @Override
     public void close() {
         if (this.channel!=null && this.channel.isActive()) {
             this.channel.close();		// if this.channel.isOpen()
         }
-        if (this.group!=null && !this.group.isShutdown()) {
-            this.group.shutdownGracefully();
-        }
         logger.debug(">>>>>>>>>>> xxl-rpc netty client close.");
     }
 
 
     @Override
-    public void send(XxlRpcRequest xxlRpcRequest) throws Exception {
+    public void send(final XxlRpcRequest xxlRpcRequest) throws Exception {
         byte[] requestBytes = serializer.serialize(xxlRpcRequest);
 
         DefaultFullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, new URI(address).getRawPath(), Unpooled.wrappedBuffer(requestBytes));
@@ -105,7 +114,15 @@ public class NettyHttpConnectClient extends ConnectClient {
         request.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.KEEP_ALIVE);
         request.headers().set(HttpHeaderNames.CONTENT_LENGTH, request.content().readableBytes());
 
-        this.channel.writeAndFlush(request).sync();
+        // async write, not wait; write fail will notify future-response
+        this.channel.writeAndFlush(request).addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) throws Exception {
+                if (!future.isSuccess()) {
+                    notifySendFail(xxlRpcInvokerFactory, xxlRpcRequest, future.cause());
+                }
+            }
+        });
     }
 
 }
@@ -1,20 +1,20 @@
 package com.xxl.rpc.remoting.net.impl.netty_http.server;
 
 import com.xxl.rpc.remoting.net.Server;
+import com.xxl.rpc.remoting.net.common.NettyTransport;
 import com.xxl.rpc.remoting.provider.XxlRpcProviderFactory;
-import com.xxl.rpc.util.ThreadPoolUtil;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.flush.FlushConsolidationHandler;
 import io.netty.handler.timeout.IdleStateHandler;
-import java.util.concurrent.ThreadPoolExecutor;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -35,31 +35,43 @@ public class NettyHttpServer extends Server  {
             public void run() {
 
                 // param
-                final ThreadPoolExecutor serverHandlerPool = ThreadPoolUtil.makeServerThreadPool(NettyHttpServer.class.getSimpleName());
-                EventLoopGroup bossGroup = new NioEventLoopGroup();
-                EventLoopGroup workerGroup = new NioEventLoopGroup();
+                NettyTransport nettyTransport = xxlRpcProviderFactory.getNettyTransport().resolve();
+                boolean reusePort = nettyTransport==NettyTransport.EPOLL && xxlRpcProviderFactory.getAcceptorThreads()>1;     // SO_REUSEPORT, mult acceptor bind same port
+                EventLoopGroup bossGroup = nettyTransport.newEventLoopGroup(reusePort?xxlRpcProviderFactory.getAcceptorThreads():1, new DefaultThreadFactory("xxl-rpc, NettyHttpServer-bossGroup"));
+                EventLoopGroup workerGroup = nettyTransport.newEventLoopGroup(0, new DefaultThreadFactory("xxl-rpc, NettyHttpServer-workerGroup"));
 
                 try {
                     // start server
                     ServerBootstrap bootstrap = new ServerBootstrap();
                     bootstrap.group(bossGroup, workerGroup)
-                            .channel(NioServerSocketChannel.class)
+                            .channel(nettyTransport.serverChannelClass())
                             .childHandler(new ChannelInitializer<SocketChannel>() {
                                 @Override
                                 public void initChannel(SocketChannel channel) throws Exception {
+                                    if (xxlRpcProviderFactory.getFlushConsolidation() > 0) {
+                                        channel.pipeline().addLast(new FlushConsolidationHandler(xxlRpcProviderFactory.getFlushConsolidation(), true));    // batch flush, per N writes or per event-loop tick
+                                    }
                                     channel.pipeline()
                                             .addLast(new IdleStateHandler(0, 0, 10, TimeUnit.MINUTES))
                                             .addLast(new HttpServerCodec())
                                             .addLast(new HttpObjectAggregator(5 * 1024 * 1024))  // merge request & reponse to FULL
-                                            .addLast(new NettyHttpServerHandler(xxlRpcProviderFactory, serverHandlerPool));
+                                            .addLast(new NettyHttpServerHandler(xxlRpcProviderFactory));
                                 }
                             })
                             .childOption(ChannelOption.SO_KEEPALIVE, true);
+                    if (reusePort) {
+                        bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+                    }
 
                     // bind
                     ChannelFuture future = bootstrap.bind(xxlRpcProviderFactory.getPort()).sync();
+                    if (reusePort) {
+                        for (int i = 1; i < xxlRpcProviderFactory.getAcceptorThreads(); i++) {
+                            bootstrap.bind(xxlRpcProviderFactory.getPort()).sync();
+                        }
+                    }
 
-                    logger.info(">>>>>>>>>>> xxl-rpc remoting server start success, nettype = {}, port = {}", NettyHttpServer.class.getName(), xxlRpcProviderFactory.getPort());
+                    logger.info(">>>>>>>>>>> xxl-rpc remoting server start success, nettype = {}, port = {}, transport = {}", NettyHttpServer.class.getName(), xxlRpcProviderFactory.getPort(), nettyTransport);
                     onStarted();
 
                     // wait util stop
@@ -74,11 +86,6 @@ public class NettyHttpServer extends Server  {
                 } finally {
 
                     // stop
-                    try {
-                        serverHandlerPool.shutdown();	// shutdownNow
-                    } catch (Exception e) {
-                        logger.error(e.getMessage(), e);
-                    }
                     try {
                         workerGroup.shutdownGracefully();
                         bossGroup.shutdownGracefully();
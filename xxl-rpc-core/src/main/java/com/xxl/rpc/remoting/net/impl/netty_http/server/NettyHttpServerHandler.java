@@ -14,8 +14,7 @@ import io.netty.handler.timeout.IdleStateEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ThreadPoolExecutor;
-
+import java.util.function.Consumer;
 
 /**
  * netty_http
@@ -27,32 +26,22 @@ public class NettyHttpServerHandler extends SimpleChannelInboundHandler<FullHttp
 
 
     private XxlRpcProviderFactory xxlRpcProviderFactory;
-    private ThreadPoolExecutor serverHandlerPool;
 
-    public NettyHttpServerHandler(final XxlRpcProviderFactory xxlRpcProviderFactory, final ThreadPoolExecutor serverHandlerPool) {
+    public NettyHttpServerHandler(final XxlRpcProviderFactory xxlRpcProviderFactory) {
         this.xxlRpcProviderFactory = xxlRpcProviderFactory;
-        this.serverHandlerPool = serverHandlerPool;
     }
 
     @Override
     protected void channelRead0(final ChannelHandlerContext ctx, FullHttpRequest msg) throws Exception {
 
+        // arrive time, for request deadline
+        final long arriveMillisTime = System.currentTimeMillis();
+
         // request parse
-        final byte[] requestBytes = ByteBufUtil.getBytes(msg.content());    // byteBuf.toString(io.netty.util.CharsetUtil.UTF_8);
         final String uri = msg.uri();
         final boolean keepAlive = HttpUtil.isKeepAlive(msg);
 
-        // do invoke
-        serverHandlerPool.execute(new Runnable() {
-            @Override
-            public void run() {
-                process(ctx, uri, requestBytes, keepAlive);
-            }
-        });
-    }
-
-    private void process(ChannelHandlerContext ctx, String uri, byte[] requestBytes, boolean keepAlive){
-        String requestId = null;
+        long requestId = 0;
         try {
             if ("/services".equals(uri)) {	// services mapping
 
@@ -72,38 +61,56 @@ public class NettyHttpServerHandler extends SimpleChannelInboundHandler<FullHttp
             } else {
 
                 // valid
-                if (requestBytes.length == 0) {
+                if (!msg.content().isReadable()) {
                     throw new XxlRpcException("xxl-rpc request data empty.");
                 }
 
-                // request deserialize
-                XxlRpcRequest xxlRpcRequest = (XxlRpcRequest) xxlRpcProviderFactory.getSerializer().deserialize(requestBytes, XxlRpcRequest.class);
+                // request deserialize, on io thread (dispatch by service)
+                final XxlRpcRequest xxlRpcRequest = (XxlRpcRequest) xxlRpcProviderFactory.getSerializer().deserialize(ByteBufUtil.getBytes(msg.content()), XxlRpcRequest.class);
                 requestId = xxlRpcRequest.getRequestId();
 
-                // invoke + response
-                XxlRpcResponse xxlRpcResponse = xxlRpcProviderFactory.invokeService(xxlRpcRequest);
-
-                // response serialize
-                byte[] responseBytes = xxlRpcProviderFactory.getSerializer().serialize(xxlRpcResponse);
-
-                // response-write
-                writeResponse(ctx, keepAlive, responseBytes);
+                // do invoke, on io thread / pool / virtual thread (overload response when rejected)
+                xxlRpcProviderFactory.dispatch(xxlRpcRequest, arriveMillisTime, new Consumer<XxlRpcResponse>() {
+                    @Override
+                    public void accept(XxlRpcResponse xxlRpcResponse) {
+                        writeResponse(ctx, keepAlive, xxlRpcRequest.getRequestId(), xxlRpcResponse);
+                    }
+                });
             }
         } catch (Exception e) {
             logger.error(e.getMessage(), e);
+            writeErrorResponse(ctx, keepAlive, requestId, e);
+        }
+    }
 
-            // response error
-            XxlRpcResponse xxlRpcResponse = new XxlRpcResponse();
-            xxlRpcResponse.setRequestId(requestId);
-            xxlRpcResponse.setErrorMsg(ThrowableUtil.toString(e));
-
+    private void writeResponse(ChannelHandlerContext ctx, boolean keepAlive, long requestId, XxlRpcResponse xxlRpcResponse){
+        // response (async service, response when complete)
+        try {
             // response serialize
             byte[] responseBytes = xxlRpcProviderFactory.getSerializer().serialize(xxlRpcResponse);
 
             // response-write
             writeResponse(ctx, keepAlive, responseBytes);
+        } catch (Exception e) {
+            logger.error(e.getMessage(), e);
+            writeErrorResponse(ctx, keepAlive, requestId, e);
         }
+    }
+
+    /**
+     * write error response
+     */
+    private void writeErrorResponse(ChannelHandlerContext ctx, boolean keepAlive, long requestId, Exception e){
+        // response error
+        XxlRpcResponse xxlRpcResponse = new XxlRpcResponse();
+        xxlRpcResponse.setRequestId(requestId);
+        xxlRpcResponse.setErrorMsg(ThrowableUtil.toString(e));
+
+        // response serialize
+        byte[] responseBytes = xxlRpcProviderFactory.getSerializer().serialize(xxlRpcResponse);
 
+        // response-write
+        writeResponse(ctx, keepAlive, responseBytes);
     }
 
     /**
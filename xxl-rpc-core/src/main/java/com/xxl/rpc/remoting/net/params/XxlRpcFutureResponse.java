@@ -2,9 +2,17 @@ package com.xxl.rpc.remoting.net.params;
 
 import com.xxl.rpc.remoting.invoker.XxlRpcInvokerFactory;
 import com.xxl.rpc.remoting.invoker.call.XxlRpcInvokeCallback;
+import com.xxl.rpc.remoting.invoker.reference.HedgePolicy;
+import com.xxl.rpc.remoting.invoker.route.RouteFeedback;
+import com.xxl.rpc.remoting.net.common.ConnectClient;
 import com.xxl.rpc.util.XxlRpcException;
+import io.netty.util.Timeout;
 
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * call back future
@@ -19,21 +27,36 @@ public class XxlRpcFutureResponse implements Future<XxlRpcResponse> {
 
 	// net data
 	private XxlRpcRequest request;
-	private XxlRpcResponse response;
+	private volatile XxlRpcResponse response;		// set once by CAS, not null means done
 
-	// future lock
-	private boolean done = false;
-
-	private Object lock = new Object();
+	// waiter stack, parked thread waiting for response
+	private volatile WaitNode waiters;
 
 	// callback, can be null
 	private XxlRpcInvokeCallback invokeCallback;
 
+	// completable future, for method return CompletableFuture; can be null
+	private CompletableFuture<Object> completableFuture;
+
+	// timeout (ms), expire by invoker factory timer; <=0 means never expire
+	private long timeout;
+	private volatile Timeout timeoutHandle;
+
+
+	public XxlRpcFutureResponse(final XxlRpcInvokerFactory invokerFactory, XxlRpcRequest request, XxlRpcInvokeCallback<?> invokeCallback) {
+		this(invokerFactory, request, invokeCallback, 0);
+	}
 
-	public XxlRpcFutureResponse(final XxlRpcInvokerFactory invokerFactory, XxlRpcRequest request, XxlRpcInvokeCallback invokeCallback) {
+	public XxlRpcFutureResponse(final XxlRpcInvokerFactory invokerFactory, XxlRpcRequest request, XxlRpcInvokeCallback<?> invokeCallback, long timeout) {
+		this(invokerFactory, request, invokeCallback, null, timeout);
+	}
+
+	public XxlRpcFutureResponse(final XxlRpcInvokerFactory invokerFactory, XxlRpcRequest request, XxlRpcInvokeCallback<?> invokeCallback, CompletableFuture<Object> completableFuture, long timeout) {
 		this.invokerFactory = invokerFactory;
 		this.request = request;
 		this.invokeCallback = invokeCallback;
+		this.completableFuture = completableFuture;
+		this.timeout = timeout;
 
 		// set-InvokerFuture
 		setInvokerFuture();
@@ -44,9 +67,100 @@ public class XxlRpcFutureResponse implements Future<XxlRpcResponse> {
 
 	public void setInvokerFuture(){
 		this.invokerFactory.setInvokerFuture(request.getRequestId(), this);
+
+		// expire at deadline, avoid orphan future-response when provider never answer
+		if (timeout > 0) {
+			this.timeoutHandle = this.invokerFactory.scheduleTimeout(request.getRequestId(), timeout);
+		}
 	}
 	public void removeInvokerFuture(){
-		this.invokerFactory.removeInvokerFuture(request.getRequestId());
+		this.invokerFactory.removeInvokerFuture(this);
+	}
+
+
+	// ---------------------- pending ----------------------
+
+	// connect-client which send this request (pending of connection and address), release once when future-response removed
+	private static final Object PENDING_RELEASED = new Object();		// terminal, bind after release (removed before send) is ignored
+	private final AtomicReference<Object> pendingClient = new AtomicReference<Object>();
+
+	public void bindPending(ConnectClient connectClient){
+		if (pendingClient.compareAndSet(null, connectClient)) {
+			connectClient.acquirePending();
+		}
+	}
+	public void releasePending(){
+		Object connectClient = pendingClient.getAndSet(PENDING_RELEASED);
+		if (connectClient instanceof ConnectClient) {
+			((ConnectClient) connectClient).releasePending();
+		}
+	}
+
+
+	// ---------------------- route feedback ----------------------
+
+	// feedback to load balance (latency, outstanding) of routed address, complete once
+	private final AtomicReference<RouteFeedback> routeFeedback = new AtomicReference<RouteFeedback>();
+	private volatile long sendNanos;
+
+	public void bindRouteFeedback(RouteFeedback feedback){
+		if (feedback != null) {
+			this.sendNanos = System.nanoTime();
+			routeFeedback.set(feedback);
+		}
+	}
+	public void completeRouteFeedback(boolean success){
+		RouteFeedback feedback = routeFeedback.getAndSet(null);
+		if (feedback != null) {
+			feedback.onComplete(System.nanoTime() - sendNanos, success);
+		}
+	}
+
+
+	// ---------------------- hedge ----------------------
+
+	// hedged request: primary holds the hedge copy, the copy holds its primary; first success response notify the primary once
+	private volatile XxlRpcFutureResponse hedge;
+	private volatile XxlRpcFutureResponse hedgePrimary;
+	private volatile HedgePolicy hedgePolicy;		// record latency of winner response, can be null
+	private final AtomicBoolean notified = new AtomicBoolean(false);
+
+	public void bindHedge(XxlRpcFutureResponse hedge){
+		hedge.hedgePrimary = this;
+		this.hedge = hedge;
+	}
+	public XxlRpcFutureResponse getHedge() {
+		return hedge;
+	}
+	public XxlRpcFutureResponse getHedgePrimary() {
+		return hedgePrimary;
+	}
+
+	public void setHedgePolicy(HedgePolicy hedgePolicy) {
+		this.hedgePolicy = hedgePolicy;
+	}
+	public HedgePolicy getHedgePolicy() {
+		return hedgePolicy;
+	}
+
+	/**
+	 * mark notified, for hedged request
+	 *
+	 * @return	false when already notified
+	 */
+	public boolean markNotified(){
+		return notified.compareAndSet(false, true);
+	}
+
+
+	// ---------------------- timeout ----------------------
+
+	public void cancelTimeout(){
+		Timeout handle = timeoutHandle;
+		if (handle != null) {
+			handle.cancel();
+			timeoutHandle = null;
+		}
 	}
 
 
@@ -58,25 +172,63 @@ public class XxlRpcFutureResponse implements Future<XxlRpcResponse> {
 	public XxlRpcInvokeCallback getInvokeCallback() {
 		return invokeCallback;
 	}
+	public CompletableFuture<Object> getCompletableFuture() {
+		return completableFuture;
+	}
 
 
 	// ---------------------- for invoke back ----------------------
-	//XXL-RPC采用NIO进行底层通讯，但是NIO是异步通讯模型，调用线程并不会阻塞获取调用结果，因此，XXL-RPC实现了在异步通讯模型上的同步调用，即“sync-over-async”，实现原理如下，可参考上
-	/*
-		synchronized是Java中的关键字，是一种同步锁。它修饰的对象有以下几种：
-			1. 修饰一个代码块，被修饰的代码块称为同步语句块，其作用的范围是大括号{}括起来的代码，作用的对象是调用这个代码块的对象；
-			2. 修饰一个方法，被修饰的方法称为同步方法，其作用的范围是整个方法，作用的对象是调用这个方法的对象；
-			3. 修改一个静态的方法，其作用的范围是整个静态方法，作用的对象是这个类的所有对象；
-			4. 修改一个类，其作用的范围是synchronized后面括号括起来的部分，作用主的对象是这个类的所有对象。
-	*/
-	//	当没有明确的对象作为锁，只是想让一段代码同步时，可以创建一个特殊的对象来充当锁：
-	//	https://blog.csdn.net/luoweifu/article/details/46613015
+	//XXL-RPC采用NIO进行底层通讯，但是NIO是异步通讯模型，调用线程并不会阻塞获取调用结果，因此，XXL-RPC实现了在异步通讯模型上的同步调用，即“sync-over-async”：
+	//调用线程 park 等待，响应到达时 CAS 设置 response，并 unpark 所有等待线程（无锁，参考 FutureTask）
+
+	private static final AtomicReferenceFieldUpdater<XxlRpcFutureResponse, XxlRpcResponse> RESPONSE_UPDATER =
+			AtomicReferenceFieldUpdater.newUpdater(XxlRpcFutureResponse.class, XxlRpcResponse.class, "response");
+	private static final AtomicReferenceFieldUpdater<XxlRpcFutureResponse, WaitNode> WAITERS_UPDATER =
+			AtomicReferenceFieldUpdater.newUpdater(XxlRpcFutureResponse.class, WaitNode.class, "waiters");
+
+	private static final class WaitNode {
+		volatile Thread thread = Thread.currentThread();
+		volatile WaitNode next;
+	}
+
+	/**
+	 * unlink waiter node, when get timeout or interrupted, avoid garbage waiter retained until response (or never, when response lost)
+	 * (unlink all node whose thread is null, same as FutureTask.removeWaiter)
+	 */
+	private void removeWaiter(WaitNode node) {
+		node.thread = null;
+		retry:
+		for (;;) {
+			for (WaitNode pred = null, q = waiters, s; q != null; q = s) {
+				s = q.next;
+				if (q.thread != null) {
+					pred = q;
+				} else if (pred != null) {
+					pred.next = s;
+					if (pred.thread == null) {		// pred removed meanwhile, re-scan
+						continue retry;
+					}
+				} else if (!WAITERS_UPDATER.compareAndSet(this, q, s)) {
+					continue retry;
+				}
+			}
+			break;
+		}
+	}
+
 	public void setResponse(XxlRpcResponse response) {
-		this.response = response;
-		// 有点疑惑锁住了 lock 对象，但是请求不会去，获取这个对象的
-		synchronized (lock) {
-			done = true;
-			lock.notifyAll();
+		// set once
+		if (!RESPONSE_UPDATER.compareAndSet(this, null, response)) {
+			return;
+		}
+
+		// wake up waiters
+		for (WaitNode node = WAITERS_UPDATER.getAndSet(this, null); node != null; node = node.next) {
+			Thread thread = node.thread;
+			if (thread != null) {
+				node.thread = null;
+				LockSupport.unpark(thread);
+			}
 		}
 	}
 
@@ -97,7 +249,7 @@ public class XxlRpcFutureResponse implements Future<XxlRpcResponse> {
 
 	@Override
 	public boolean isDone() {
-		return done;
+		return response != null;
 	}
 
 	@Override
@@ -108,28 +260,52 @@ public class XxlRpcFutureResponse implements Future<XxlRpcResponse> {
 			throw new XxlRpcException(e);
 		}
 	}
-	//设置一个超时等待
+	//设置一个超时等待，timeout <= 0 时一直等待
 	@Override
 	public XxlRpcResponse get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-		if (!done) {
-			synchronized (lock) {
-				try {
-					if (timeout < 0) {
-						lock.wait();
-					} else {
-						long timeoutMillis = (TimeUnit.MILLISECONDS==unit)?timeout:TimeUnit.MILLISECONDS.convert(timeout , unit);
-						lock.wait(timeoutMillis);
+		XxlRpcResponse result = response;
+		if (result != null) {
+			return result;
+		}
+
+		long deadline = (timeout <= 0)?0:System.nanoTime() + unit.toNanos(timeout);
+		WaitNode node = null;
+		boolean queued = false;
+		try {
+			for (;;) {
+				if (Thread.interrupted()) {
+					throw new InterruptedException();
+				}
+
+				result = response;
+				if (result != null) {
+					return result;
+				}
+
+				if (node == null) {
+					node = new WaitNode();
+				} else if (!queued) {
+					node.next = waiters;
+					queued = WAITERS_UPDATER.compareAndSet(this, node.next, node);
+				} else if (timeout <= 0) {
+					LockSupport.park(this);
+				} else {
+					long nanos = deadline - System.nanoTime();
+					if (nanos <= 0) {
+						throw new XxlRpcException("xxl-rpc, request timeout at:"+ System.currentTimeMillis() +", request:" + request.toString());
 					}
-				} catch (InterruptedException e) {
-					throw e;
+					LockSupport.parkNanos(this, nanos);	// spurious wakeup, loop and re-check
+				}
+			}
+		} finally {
+			if (node != null) {
+				if (queued && response == null) {
+					removeWaiter(node);		// timeout / interrupted, unlink from waiter stack
+				} else {
+					node.thread = null;		// not unpark any more
 				}
 			}
 		}
-
-		if (!done) {
-			throw new XxlRpcException("xxl-rpc, request timeout at:"+ System.currentTimeMillis() +", request:" + request.toString());
-		}
-		return response;
 	}
 
 
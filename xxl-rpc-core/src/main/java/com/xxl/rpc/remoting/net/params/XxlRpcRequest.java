@@ -10,10 +10,11 @@ import java.util.Arrays;
  * @author xuxueli 2015-10-29 19:39:12
  */
 public class XxlRpcRequest implements Serializable{
-	private static final long serialVersionUID = 42L;
+	private static final long serialVersionUID = 43L;		// v1.4.2, requestId String -> long, not compatible with older version
 	
-	private String requestId;
+	private long requestId;
 	private long createMillisTime;
+	private long timeout;		// client timeout(ms), deadline relative to server arrival; 0 means no deadline
 	private String accessToken;
 
     private String className;   //调用的接口
@@ -24,11 +25,11 @@ public class XxlRpcRequest implements Serializable{
 	private String version; //版本
 
 
-	public String getRequestId() {
+	public long getRequestId() {
 		return requestId;
 	}
 
-	public void setRequestId(String requestId) {
+	public void setRequestId(long requestId) {
 		this.requestId = requestId;
 	}
 
@@ -40,6 +41,14 @@ public class XxlRpcRequest implements Serializable{
 		this.createMillisTime = createMillisTime;
 	}
 
+	public long getTimeout() {
+		return timeout;
+	}
+
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
 	public String getAccessToken() {
 		return accessToken;
 	}
@@ -91,8 +100,9 @@ public class XxlRpcRequest implements Serializable{
 	@Override
 	public String toString() {
 		return "XxlRpcRequest{" +
-				"requestId='" + requestId + '\'' +
+				"requestId=" + requestId +
 				", createMillisTime=" + createMillisTime +
+				", timeout=" + timeout +
 				", accessToken='" + accessToken + '\'' +
 				", className='" + className + '\'' +
 				", methodName='" + methodName + '\'' +
@@ -8,19 +8,20 @@ import java.io.Serializable;
  * @author xuxueli 2015-10-29 19:39:54
  */
 public class XxlRpcResponse implements Serializable{
-	private static final long serialVersionUID = 42L;
+	private static final long serialVersionUID = 43L;		// v1.4.2, requestId String -> long, not compatible with older version
 
 
-	private String requestId;
+	private long requestId;
     private String errorMsg;
     private Object result;
+    private boolean overload;       // rejected by provider overload protection (concurrency limit, bulkhead, thread pool), not invoked
 
 
-    public String getRequestId() {
+    public long getRequestId() {
         return requestId;
     }
 
-    public void setRequestId(String requestId) {
+    public void setRequestId(long requestId) {
         this.requestId = requestId;
     }
 
@@ -40,12 +41,21 @@ public class XxlRpcResponse implements Serializable{
         this.result = result;
     }
 
+    public boolean isOverload() {
+        return overload;
+    }
+
+    public void setOverload(boolean overload) {
+        this.overload = overload;
+    }
+
     @Override
     public String toString() {
         return "XxlRpcResponse{" +
-                "requestId='" + requestId + '\'' +
+                "requestId=" + requestId +
                 ", errorMsg='" + errorMsg + '\'' +
                 ", result=" + result +
+                ", overload=" + overload +
                 '}';
     }
 
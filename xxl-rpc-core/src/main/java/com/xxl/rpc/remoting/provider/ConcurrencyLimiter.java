@@ -0,0 +1,146 @@
+package com.xxl.rpc.remoting.provider;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * adaptive concurrency limiter, AIMD by measured latency
+ * 自适应并发限制：请求延迟（含排队）明显高于基线延迟（近似无负载延迟）、或超过客户端超时时，乘性减小并发上限；否则在并发接近上限时加性增大；
+ * 超过并发上限的请求直接拒绝，避免队列无限增长、尾延迟失控
+ *
+ * @author xxl-rpc contributors
+ */
+public class ConcurrencyLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;            // multiplicative decrease
+    private static final double LATENCY_TOLERANCE = 2.0;        // overload, when short latency > baseline latency * tolerance
+    private static final double SHORT_LATENCY_WEIGHT = 0.1;     // ewma, recent latency
+    private static final double BASELINE_DOWN_WEIGHT = 0.1;     // baseline (no-load latency), follow lower latency fast
+    private static final double BASELINE_UP_WEIGHT = 0.0001;    // baseline, drift to higher latency slowly
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private volatile int limit;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+
+    // guarded by updating; one thread adjust limit at a time, release never block (sample skipped when busy)
+    private final AtomicBoolean updating = new AtomicBoolean(false);
+    private volatile boolean droppedPending;
+    private double estimatedLimit;
+    private double shortLatency;
+    private double baselineLatency;
+
+    public ConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.estimatedLimit = this.limit;
+    }
+
+    /**
+     * acquire, fail immediately when in-flight reach limit
+     *
+     * @return
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * release, and adjust limit by latency
+     *
+     * @param latencyNanos  from acquire to finish (queue + invoke)
+     * @param dropped       finished but useless (client already timeout), or not executed
+     */
+    public void release(long latencyNanos, boolean dropped) {
+        int currentInFlight = inFlight.getAndDecrement();
+        if (dropped) {
+            droppedPending = true;      // not lost when busy, decrease by next update
+        }
+
+        if (!updating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (droppedPending) {
+                droppedPending = false;
+                decrease();
+                return;
+            }
+
+            if (baselineLatency == 0) {
+                shortLatency = baselineLatency = latencyNanos;
+                return;
+            }
+            shortLatency += (latencyNanos - shortLatency) * SHORT_LATENCY_WEIGHT;
+            baselineLatency += (latencyNanos - baselineLatency) * ((latencyNanos < baselineLatency)?BASELINE_DOWN_WEIGHT:BASELINE_UP_WEIGHT);
+
+            if (shortLatency > baselineLatency * LATENCY_TOLERANCE) {
+                decrease();
+            } else if (currentInFlight * 2 >= limit) {
+                // increase only when limit is being used; about +1 per limit-window of requests
+                estimatedLimit = Math.min(maxLimit, estimatedLimit + 1.0 / estimatedLimit);
+                limit = (int) estimatedLimit;
+            }
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    /**
+     * cancel acquired, not executed; without limit adjust
+     */
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    private void decrease() {
+        estimatedLimit = Math.max(minLimit, estimatedLimit * BACKOFF_RATIO);
+        limit = (int) estimatedLimit;
+        shortLatency = baselineLatency;     // wait for new samples before next decrease
+    }
+
+
+    // ---------------------- metrics ----------------------
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiter{" +
+                "name='" + name + '\'' +
+                ", limit=" + limit +
+                ", inFlight=" + inFlight.get() +
+                ", rejectedCount=" + rejectedCount.get() +
+                '}';
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.xxl.rpc.remoting.provider;
+
+/**
+ * service execution type, thread where provider invoke service (for NETTY、NETTY_HTTP、MINA)
+ * 服务端业务执行模型：IO线程直接执行、业务线程池、或每请求一个虚拟线程
+ *
+ * @author xxl-rpc contributors
+ */
+public enum ExecutionType {
+
+    /**
+     * follow provider factory execution type (for service)
+     */
+    DEFAULT,
+
+    /**
+     * invoke on io thread directly, for trivial non-blocking service
+     */
+    IO_THREAD,
+
+    /**
+     * invoke in bounded server handler pool
+     */
+    POOL,
+
+    /**
+     * invoke in one virtual thread per request (JDK 21+), fallback to POOL when not supported
+     */
+    VIRTUAL_THREAD;
+
+}
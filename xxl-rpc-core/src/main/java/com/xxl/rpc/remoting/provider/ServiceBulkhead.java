@@ -0,0 +1,168 @@
+package com.xxl.rpc.remoting.provider;
+
+import com.xxl.rpc.util.ThreadPoolUtil;
+import com.xxl.rpc.util.XxlRpcException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * service bulkhead, isolate service from others
+ * 服务舱壁隔离：服务独立线程池（独立队列）和/或最大并发（信号量），单个服务变慢时不会耗尽共享线程池，影响其他服务
+ *
+ * @author xxl-rpc contributors
+ */
+public class ServiceBulkhead {
+
+    private final String serviceKey;
+    private final int threads;              // isolated thread pool size, 0 means use shared execution
+    private final int queueSize;            // isolated thread pool queue size
+    private final int maxConcurrency;       // max concurrent invoke (semaphore), 0 means no limit
+
+    private final Semaphore semaphore;
+    private volatile ThreadPoolExecutor pool;
+
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+    private final AtomicLong completedCount = new AtomicLong(0);
+
+    public ServiceBulkhead(String serviceKey, int threads, int queueSize, int maxConcurrency) {
+        this.serviceKey = serviceKey;
+        this.threads = Math.max(0, threads);
+        this.queueSize = Math.max(1, queueSize);
+        this.maxConcurrency = Math.max(0, maxConcurrency);
+        this.semaphore = (this.maxConcurrency > 0)?new Semaphore(this.maxConcurrency):null;
+    }
+
+    /**
+     * enabled, with isolated thread pool or max concurrency
+     */
+    public boolean isEnabled() {
+        return threads>0 || maxConcurrency>0;
+    }
+
+    public boolean hasPool() {
+        return threads > 0;
+    }
+
+
+    // ---------------------- execute ----------------------
+
+    /**
+     * acquire concurrency, throw XxlRpcException when full
+     *
+     * @return  permit, release when response complete (async service complete), or cancel when not executed
+     */
+    public Permit acquire() {
+        if (semaphore!=null && !semaphore.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            throw new XxlRpcException("xxl-rpc provider service["+ serviceKey +"] bulkhead full, max concurrency["+ maxConcurrency +"].");
+        }
+        return new Permit();
+    }
+
+    /**
+     * acquired concurrency, release only once (response complete or cancel)
+     */
+    public class Permit {
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit() {
+        }
+
+        /**
+         * response complete
+         */
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                completedCount.incrementAndGet();
+                if (semaphore != null) {
+                    semaphore.release();
+                }
+            }
+        }
+
+        /**
+         * cancel, not executed
+         */
+        public void cancel() {
+            if (released.compareAndSet(false, true)) {
+                rejectedCount.incrementAndGet();
+                if (semaphore != null) {
+                    semaphore.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * execute in isolated thread pool, throw XxlRpcException when pool exhausted
+     *
+     * @param task
+     */
+    public void execute(Runnable task) {
+        getPool().execute(task);
+    }
+
+    private ThreadPoolExecutor getPool() {
+        if (pool == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    pool = ThreadPoolUtil.makeServerThreadPool("bulkhead-" + serviceKey, threads, threads, queueSize);
+                }
+            }
+        }
+        return pool;
+    }
+
+    public void stop() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+
+    // ---------------------- metrics ----------------------
+
+    public String getServiceKey() {
+        return serviceKey;
+    }
+
+    public int getActiveCount() {
+        if (semaphore != null) {
+            return maxConcurrency - semaphore.availablePermits();
+        }
+        ThreadPoolExecutor pool = this.pool;
+        return (pool!=null)?pool.getActiveCount():0;
+    }
+
+    public int getQueueSize() {
+        ThreadPoolExecutor pool = this.pool;
+        return (pool!=null)?pool.getQueue().size():0;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceBulkhead{" +
+                "serviceKey='" + serviceKey + '\'' +
+                ", threads=" + threads +
+                ", queueSize=" + queueSize +
+                ", maxConcurrency=" + maxConcurrency +
+                ", active=" + getActiveCount() +
+                ", queued=" + getQueueSize() +
+                ", rejected=" + rejectedCount.get() +
+                ", completed=" + completedCount.get() +
+                '}';
+    }
+
+}
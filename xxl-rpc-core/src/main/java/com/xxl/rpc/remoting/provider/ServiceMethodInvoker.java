@@ -0,0 +1,126 @@
+package com.xxl.rpc.remoting.provider;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * service method invoker, MethodHandle bound to service bean, build once when add service
+ * 服务方法调用器：addService 时预先构建 MethodHandle，避免每次调用 getMethod + 反射调用
+ *
+ * @author xxl-rpc contributors
+ */
+public class ServiceMethodInvoker {
+
+    private static final Object[] EMPTY_PARAMETERS = new Object[0];
+
+    private final Method method;
+    private final Class<?>[] parameterTypes;
+    private final MethodHandle methodHandle;        // (Object[])Object, bound to service bean
+
+    public ServiceMethodInvoker(Object serviceBean, Method method) throws IllegalAccessException {
+        this.method = method;
+        this.parameterTypes = method.getParameterTypes();
+
+        method.setAccessible(true);
+        this.methodHandle = MethodHandles.lookup()
+                .unreflect(method)
+                .bindTo(serviceBean)
+                .asSpreader(Object[].class, parameterTypes.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public boolean match(Class<?>[] parameterTypes) {
+        if (parameterTypes == null) {
+            return this.parameterTypes.length == 0;
+        }
+        return Arrays.equals(this.parameterTypes, parameterTypes);
+    }
+
+    /**
+     * invoke, exception thrown by service method is thrown directly (not wrapped)
+     *
+     * @param parameters
+     * @return
+     * @throws Throwable
+     */
+    public Object invoke(Object[] parameters) throws Throwable {
+        return (Object) methodHandle.invokeExact((parameters!=null)?parameters:EMPTY_PARAMETERS);
+    }
+
+
+    // ---------------------- build / find ----------------------
+
+    /**
+     * build invokers for public methods of service bean, method name -> overload candidates
+     *
+     * @param serviceBean
+     * @return
+     */
+    public static Map<String, ServiceMethodInvoker[]> build(Object serviceBean) {
+        Map<String, List<ServiceMethodInvoker>> invokerListMap = new HashMap<String, List<ServiceMethodInvoker>>();
+        for (Method method : serviceBean.getClass().getMethods()) {
+            List<ServiceMethodInvoker> invokerList = invokerListMap.get(method.getName());
+            if (invokerList == null) {
+                invokerList = new ArrayList<ServiceMethodInvoker>();
+                invokerListMap.put(method.getName(), invokerList);
+            }
+
+            // same signature (bridge method), prefer the non-bridge one
+            ServiceMethodInvoker exist = find(invokerList, method.getParameterTypes());
+            if (exist != null) {
+                if (exist.getMethod().isBridge() && !method.isBridge()) {
+                    invokerList.remove(exist);
+                } else {
+                    continue;
+                }
+            }
+
+            try {
+                invokerList.add(new ServiceMethodInvoker(serviceBean, method));
+            } catch (IllegalAccessException e) {
+                // not accessible, skip; not found when invoke
+            }
+        }
+
+        Map<String, ServiceMethodInvoker[]> invokerMap = new HashMap<String, ServiceMethodInvoker[]>();
+        for (Map.Entry<String, List<ServiceMethodInvoker>> item : invokerListMap.entrySet()) {
+            invokerMap.put(item.getKey(), item.getValue().toArray(new ServiceMethodInvoker[item.getValue().size()]));
+        }
+        return invokerMap;
+    }
+
+    /**
+     * find invoker, by parameter types
+     *
+     * @param candidates
+     * @param parameterTypes
+     * @return  null if not found
+     */
+    public static ServiceMethodInvoker find(ServiceMethodInvoker[] candidates, Class<?>[] parameterTypes) {
+        if (candidates != null) {
+            for (ServiceMethodInvoker candidate : candidates) {
+                if (candidate.match(parameterTypes)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static ServiceMethodInvoker find(List<ServiceMethodInvoker> candidates, Class<?>[] parameterTypes) {
+        for (ServiceMethodInvoker candidate : candidates) {
+            if (candidate.match(parameterTypes)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+}
@@ -3,20 +3,41 @@ package com.xxl.rpc.remoting.provider;
 import com.xxl.rpc.registry.ServiceRegistry;
 import com.xxl.rpc.remoting.net.NetEnum;
 import com.xxl.rpc.remoting.net.Server;
+import com.xxl.rpc.remoting.net.common.NettyTransport;
 import com.xxl.rpc.remoting.net.params.BaseCallback;
 import com.xxl.rpc.remoting.net.params.XxlRpcRequest;
 import com.xxl.rpc.remoting.net.params.XxlRpcResponse;
+import com.xxl.rpc.remoting.provider.annotation.XxlRpcService;
 import com.xxl.rpc.serialize.Serializer;
 import com.xxl.rpc.util.IpUtil;
 import com.xxl.rpc.util.NetUtil;
+import com.xxl.rpc.util.ThreadPoolUtil;
 import com.xxl.rpc.util.ThrowableUtil;
 import com.xxl.rpc.util.XxlRpcException;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * provider
@@ -98,6 +119,68 @@ public class XxlRpcProviderFactory {
 	}
 
 
+	private NettyTransport nettyTransport = NettyTransport.AUTO;		// netty server transport, epoll when available
+	private int acceptorThreads = 1;		// netty server acceptor threads, >1 bind with SO_REUSEPORT (epoll only)
+	private int flushConsolidation = 0;		// netty server flush batching, explicit flush after N writes; default 0 (disabled, flush per write)
+	private ExecutionType executionType = ExecutionType.POOL;		// service execution, IO_THREAD / POOL / VIRTUAL_THREAD; can be override by service
+	private int corePoolSize = 60;			// server handler pool, for POOL execution
+	private int maxPoolSize = 300;
+	private int poolQueueSize = 1000;
+	private boolean concurrencyLimit = false;		// adaptive concurrency limit (AIMD), for provider and each service; reject immediately when overload
+	private int concurrencyInitialLimit = 100;
+	private int concurrencyMinLimit = 10;
+	private int concurrencyMaxLimit = 1000;
+
+	public void setNettyTransport(NettyTransport nettyTransport) {
+		if (nettyTransport != null) {
+			this.nettyTransport = nettyTransport;
+		}
+	}
+
+	public void setAcceptorThreads(int acceptorThreads) {
+		this.acceptorThreads = acceptorThreads>0?acceptorThreads:1;
+	}
+
+	public void setFlushConsolidation(int flushConsolidation) {
+		this.flushConsolidation = flushConsolidation;
+	}
+
+
+	public void setExecutionType(ExecutionType executionType) {
+		if (executionType!=null && executionType!=ExecutionType.DEFAULT) {
+			this.executionType = executionType;
+		}
+	}
+
+	public void setCorePoolSize(int corePoolSize) {
+		this.corePoolSize = corePoolSize;
+	}
+
+	public void setMaxPoolSize(int maxPoolSize) {
+		this.maxPoolSize = maxPoolSize;
+	}
+
+	public void setPoolQueueSize(int poolQueueSize) {
+		this.poolQueueSize = poolQueueSize;
+	}
+
+	public void setConcurrencyLimit(boolean concurrencyLimit) {
+		this.concurrencyLimit = concurrencyLimit;
+	}
+
+	public void setConcurrencyInitialLimit(int concurrencyInitialLimit) {
+		this.concurrencyInitialLimit = concurrencyInitialLimit;
+	}
+
+	public void setConcurrencyMinLimit(int concurrencyMinLimit) {
+		this.concurrencyMinLimit = concurrencyMinLimit;
+	}
+
+	public void setConcurrencyMaxLimit(int concurrencyMaxLimit) {
+		this.concurrencyMaxLimit = concurrencyMaxLimit;
+	}
+
+
 	public Serializer getSerializer() {
 		return serializer;
 	}
@@ -106,6 +189,18 @@ public class XxlRpcProviderFactory {
 		return port;
 	}
 
+	public NettyTransport getNettyTransport() {
+		return nettyTransport;
+	}
+
+	public int getAcceptorThreads() {
+		return acceptorThreads;
+	}
+
+	public int getFlushConsolidation() {
+		return flushConsolidation;
+	}
+
 
 	// ---------------------- start / stop ----------------------
 
@@ -157,6 +252,341 @@ public class XxlRpcProviderFactory {
 	public void  stop() throws Exception {
 		// stop server
 		server.stop();
+
+		// stop executor
+		stopExecutor();
+	}
+
+
+	// ---------------------- server execution ----------------------
+
+	private volatile ThreadPoolExecutor serverHandlerPool;
+	private volatile ExecutorService virtualThreadExecutor;
+	private volatile boolean virtualThreadUnsupported = false;
+
+	/**
+	 * dispatch service invoke, by service execution type
+	 * 按服务执行模型分发：IO线程直接执行、业务线程池、虚拟线程；过载（并发限制、舱壁、线程池耗尽）时不调用服务，直接以 overload 响应
+	 * 并发限制、舱壁并发在响应完成时释放（异步服务在 CompletionStage 完成时，而非调用返回时）
+	 *
+	 * @param xxlRpcRequest
+	 * @param arriveMillisTime	request arrive time on server, for request deadline
+	 * @param responseWriter	write response, on invoke thread or async service complete thread
+	 */
+	public void dispatch(final XxlRpcRequest xxlRpcRequest, final long arriveMillisTime, final Consumer<XxlRpcResponse> responseWriter) {
+		String serviceKey = makeServiceKey(xxlRpcRequest.getClassName(), xxlRpcRequest.getVersion());
+
+		ExecutionType execution = executionType;
+		if (serviceExecutionData.size() > 0) {
+			ExecutionType serviceExecution = serviceExecutionData.get(serviceKey);
+			if (serviceExecution != null) {
+				execution = serviceExecution;
+			}
+		}
+
+		// concurrency limit + bulkhead (max concurrency, isolated thread pool), reject immediately when overload
+		ServiceBulkhead bulkhead = (serviceBulkheadData.size()>0)?serviceBulkheadData.get(serviceKey):null;
+		final LimitPermit limitPermit;
+		final ServiceBulkhead.Permit bulkheadPermit;
+		try {
+			limitPermit = concurrencyLimit?limit(serviceKey, xxlRpcRequest):null;
+			bulkheadPermit = (bulkhead!=null)?acquireBulkhead(bulkhead, limitPermit):null;
+		} catch (XxlRpcException e) {
+			responseWriter.accept(makeOverloadResponse(xxlRpcRequest, e));
+			return;
+		}
+
+		// invoke + response
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+				invokeService(xxlRpcRequest, arriveMillisTime, limitPermit, bulkheadPermit).thenAccept(responseWriter);
+			}
+		};
+
+		// io thread, invoke inline; limiter / bulkhead released when response complete, even throw
+		boolean isolated = bulkhead!=null && bulkhead.hasPool();
+		if (!isolated && execution==ExecutionType.IO_THREAD) {
+			task.run();
+			return;
+		}
+
+		try {
+			if (isolated) {
+				bulkhead.execute(task);
+			} else {
+				ExecutorService virtualExecutor = (execution==ExecutionType.VIRTUAL_THREAD)?getVirtualThreadExecutor():null;
+				if (virtualExecutor != null) {
+					virtualExecutor.execute(task);
+				} else {
+					getServerHandlerPool().execute(task);		// POOL, or fallback when virtual thread not supported
+				}
+			}
+		} catch (RuntimeException e) {
+			// rejected by executor (pool exhausted, or shutdown), task not executed
+			if (bulkheadPermit != null) {
+				bulkheadPermit.cancel();
+			}
+			if (limitPermit != null) {
+				limitPermit.reject();
+			}
+			responseWriter.accept(makeOverloadResponse(xxlRpcRequest, e));
+		}
+	}
+
+	/**
+	 * invoke in current thread, for server with own thread pool (like jetty)
+	 *
+	 * @param xxlRpcRequest
+	 * @param arriveMillisTime	request arrive time on server, for request deadline
+	 * @return	response future, complete when service (async service) complete; overload response when rejected
+	 */
+	public CompletableFuture<XxlRpcResponse> execute(XxlRpcRequest xxlRpcRequest, long arriveMillisTime) {
+		String serviceKey = makeServiceKey(xxlRpcRequest.getClassName(), xxlRpcRequest.getVersion());
+
+		// concurrency limit + bulkhead max concurrency (isolated thread pool not apply, invoke on server's own thread)
+		ServiceBulkhead bulkhead = (serviceBulkheadData.size()>0)?serviceBulkheadData.get(serviceKey):null;
+		LimitPermit limitPermit;
+		ServiceBulkhead.Permit bulkheadPermit;
+		try {
+			limitPermit = concurrencyLimit?limit(serviceKey, xxlRpcRequest):null;
+			bulkheadPermit = (bulkhead!=null)?acquireBulkhead(bulkhead, limitPermit):null;
+		} catch (XxlRpcException e) {
+			return CompletableFuture.completedFuture(makeOverloadResponse(xxlRpcRequest, e));
+		}
+
+		return invokeService(xxlRpcRequest, arriveMillisTime, limitPermit, bulkheadPermit);
+	}
+
+	/**
+	 * overload response, request rejected without invoke; client may retry on other provider, or back off
+	 */
+	private XxlRpcResponse makeOverloadResponse(XxlRpcRequest xxlRpcRequest, Throwable t) {
+		XxlRpcResponse xxlRpcResponse = new XxlRpcResponse();
+		xxlRpcResponse.setRequestId(xxlRpcRequest.getRequestId());
+		xxlRpcResponse.setErrorMsg(ThrowableUtil.toString(t));
+		xxlRpcResponse.setOverload(true);
+		return xxlRpcResponse;
+	}
+
+	private ServiceBulkhead.Permit acquireBulkhead(ServiceBulkhead bulkhead, LimitPermit limitPermit) {
+		try {
+			return bulkhead.acquire();
+		} catch (RuntimeException e) {
+			if (limitPermit != null) {
+				limitPermit.cancel();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * invoke service, release limit / bulkhead permit when response complete (async service complete, or deadline exceeded)
+	 */
+	private CompletableFuture<XxlRpcResponse> invokeService(XxlRpcRequest xxlRpcRequest,
+														   long arriveMillisTime,
+														   final LimitPermit limitPermit,
+														   final ServiceBulkhead.Permit bulkheadPermit) {
+		if (limitPermit==null && bulkheadPermit==null) {
+			return invokeServiceAsync(xxlRpcRequest, arriveMillisTime);
+		}
+
+		CompletableFuture<XxlRpcResponse> responseFuture;
+		try {
+			responseFuture = invokeServiceAsync(xxlRpcRequest, arriveMillisTime);
+		} catch (RuntimeException e) {
+			release(limitPermit, bulkheadPermit);
+			throw e;
+		} catch (Error e) {
+			release(limitPermit, bulkheadPermit);
+			throw e;
+		}
+		// response (dependent stage) after release, sampled latency include async service time
+		return responseFuture.whenComplete(new BiConsumer<XxlRpcResponse, Throwable>() {
+			@Override
+			public void accept(XxlRpcResponse xxlRpcResponse, Throwable t) {
+				release(limitPermit, bulkheadPermit);
+			}
+		});
+	}
+
+	private static void release(LimitPermit limitPermit, ServiceBulkhead.Permit bulkheadPermit) {
+		if (bulkheadPermit != null) {
+			bulkheadPermit.release();
+		}
+		if (limitPermit != null) {
+			limitPermit.release();
+		}
+	}
+
+	private ThreadPoolExecutor getServerHandlerPool() {
+		if (serverHandlerPool == null) {
+			synchronized (this) {
+				if (serverHandlerPool == null) {
+					serverHandlerPool = ThreadPoolUtil.makeServerThreadPool(netType.serverClass.getSimpleName(), corePoolSize, maxPoolSize, poolQueueSize);
+				}
+			}
+		}
+		return serverHandlerPool;
+	}
+
+	private ExecutorService getVirtualThreadExecutor() {
+		if (virtualThreadExecutor==null && !virtualThreadUnsupported) {
+			synchronized (this) {
+				if (virtualThreadExecutor==null && !virtualThreadUnsupported) {
+					try {
+						// JDK 21+, Executors.newVirtualThreadPerTaskExecutor
+						Method newVirtualThreadPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+						virtualThreadExecutor = (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+					} catch (Exception e) {
+						virtualThreadUnsupported = true;
+						logger.warn(">>>>>>>>>>> xxl-rpc, virtual thread not supported (JDK 21+ required), fallback to server handler pool.");
+					}
+				}
+			}
+		}
+		return virtualThreadExecutor;
+	}
+
+	// ---------------------- concurrency limit ----------------------
+
+	private volatile ConcurrencyLimiter providerConcurrencyLimiter;
+	private final ConcurrentMap<String, ConcurrencyLimiter> serviceConcurrencyLimiters = new ConcurrentHashMap<String, ConcurrencyLimiter>();
+
+	/**
+	 * provider concurrency limiter, null if concurrency limit disabled or no request yet
+	 *
+	 * @return
+	 */
+	public ConcurrencyLimiter getConcurrencyLimiter() {
+		return providerConcurrencyLimiter;
+	}
+
+	/**
+	 * service concurrency limiter, null if concurrency limit disabled or no request yet
+	 *
+	 * @param serviceKey
+	 * @return
+	 */
+	public ConcurrencyLimiter getConcurrencyLimiter(String serviceKey) {
+		return serviceConcurrencyLimiters.get(serviceKey);
+	}
+
+	private ConcurrencyLimiter getProviderConcurrencyLimiter() {
+		if (providerConcurrencyLimiter == null) {
+			synchronized (this) {
+				if (providerConcurrencyLimiter == null) {
+					providerConcurrencyLimiter = new ConcurrencyLimiter("provider", concurrencyInitialLimit, concurrencyMinLimit, concurrencyMaxLimit);
+				}
+			}
+		}
+		return providerConcurrencyLimiter;
+	}
+
+	private ConcurrencyLimiter getServiceConcurrencyLimiter(String serviceKey) {
+		ConcurrencyLimiter limiter = serviceConcurrencyLimiters.get(serviceKey);
+		if (limiter == null) {
+			if (!serviceData.containsKey(serviceKey)) {
+				return null;		// service not found, response by invoke
+			}
+			limiter = new ConcurrencyLimiter(serviceKey, concurrencyInitialLimit, concurrencyMinLimit, concurrencyMaxLimit);
+			ConcurrencyLimiter exist = serviceConcurrencyLimiters.putIfAbsent(serviceKey, limiter);
+			if (exist != null) {
+				limiter = exist;
+			}
+		}
+		return limiter;
+	}
+
+	private LimitPermit limit(String serviceKey, XxlRpcRequest xxlRpcRequest) {
+		ConcurrencyLimiter providerLimiter = getProviderConcurrencyLimiter();
+		if (!providerLimiter.tryAcquire()) {
+			throw new XxlRpcException("xxl-rpc provider overload, concurrency limit["+ providerLimiter.getLimit() +"] exceeded.");
+		}
+		ConcurrencyLimiter serviceLimiter = getServiceConcurrencyLimiter(serviceKey);
+		if (serviceLimiter!=null && !serviceLimiter.tryAcquire()) {
+			providerLimiter.cancel();
+			throw new XxlRpcException("xxl-rpc provider overload, service["+ serviceKey +"] concurrency limit["+ serviceLimiter.getLimit() +"] exceeded.");
+		}
+		return new LimitPermit(xxlRpcRequest, providerLimiter, serviceLimiter);
+	}
+
+	/**
+	 * acquired limiter permit, release once when response complete (latency from dispatch, include queue time and async service time)
+	 */
+	private static class LimitPermit {
+		private final XxlRpcRequest xxlRpcRequest;
+		private final ConcurrencyLimiter providerLimiter;
+		private final ConcurrencyLimiter serviceLimiter;
+		private final long startNanoTime = System.nanoTime();
+		private final AtomicBoolean released = new AtomicBoolean(false);
+
+		LimitPermit(XxlRpcRequest xxlRpcRequest, ConcurrencyLimiter providerLimiter, ConcurrencyLimiter serviceLimiter) {
+			this.xxlRpcRequest = xxlRpcRequest;
+			this.providerLimiter = providerLimiter;
+			this.serviceLimiter = serviceLimiter;
+		}
+
+		/**
+		 * response complete
+		 */
+		void release() {
+			long latencyNanos = System.nanoTime() - startNanoTime;
+			// client already timeout, response useless
+			boolean dropped = xxlRpcRequest.getTimeout()>0 && TimeUnit.NANOSECONDS.toMillis(latencyNanos)>=xxlRpcRequest.getTimeout();
+			release(latencyNanos, dropped);
+		}
+
+		/**
+		 * rejected by executor, not executed (overload signal)
+		 */
+		void reject() {
+			release(System.nanoTime() - startNanoTime, true);
+		}
+
+		/**
+		 * cancel, not executed (rejected by other limit), without limit adjust
+		 */
+		void cancel() {
+			if (released.compareAndSet(false, true)) {
+				providerLimiter.cancel();
+				if (serviceLimiter != null) {
+					serviceLimiter.cancel();
+				}
+			}
+		}
+
+		private void release(long latencyNanos, boolean dropped) {
+			if (released.compareAndSet(false, true)) {
+				providerLimiter.release(latencyNanos, dropped);
+				if (serviceLimiter != null) {
+					serviceLimiter.release(latencyNanos, dropped);
+				}
+			}
+		}
+	}
+
+
+	private void stopExecutor() {
+		try {
+			if (serverHandlerPool != null) {
+				serverHandlerPool.shutdown();
+				serverHandlerPool = null;
+			}
+			if (virtualThreadExecutor != null) {
+				virtualThreadExecutor.shutdown();
+				virtualThreadExecutor = null;
+			}
+			for (ServiceBulkhead bulkhead : serviceBulkheadData.values()) {
+				bulkhead.stop();
+			}
+			if (timeoutTimer != null) {
+				timeoutTimer.stop();
+				timeoutTimer = null;
+			}
+		} catch (Exception e) {
+			logger.error(e.getMessage(), e);
+		}
 	}
 
 
@@ -166,6 +596,9 @@ public class XxlRpcProviderFactory {
 	 * init local rpc service map
 	 */
 	private Map<String, Object> serviceData = new HashMap<String, Object>();
+	private Map<String, ExecutionType> serviceExecutionData = new HashMap<String, ExecutionType>();		// service execution, override provider factory
+	private Map<String, ServiceBulkhead> serviceBulkheadData = new HashMap<String, ServiceBulkhead>();		// service bulkhead, isolated from other services
+	private Map<String, Map<String, ServiceMethodInvoker[]>> serviceMethodData = new HashMap<String, Map<String, ServiceMethodInvoker[]>>();	// service method dispatch table, build once
 	public Map<String, Object> getServiceData() {
 		return serviceData;
 	}
@@ -193,10 +626,62 @@ public class XxlRpcProviderFactory {
 	 * @param serviceBean
 	 */
 	public void addService(String iface, String version, Object serviceBean){
+		XxlRpcService xxlRpcService = serviceBean.getClass().getAnnotation(XxlRpcService.class);
+		if (xxlRpcService == null) {
+			addService(iface, version, serviceBean, ExecutionType.DEFAULT);
+			return;
+		}
+
+		ServiceBulkhead bulkhead = new ServiceBulkhead(makeServiceKey(iface, version),
+				xxlRpcService.bulkheadThreads(),
+				xxlRpcService.bulkheadQueueSize(),
+				xxlRpcService.bulkheadMaxConcurrency());
+		addService(iface, version, serviceBean, xxlRpcService.execution(), bulkhead);
+	}
+
+	/**
+	 * add service, with execution type
+	 *
+	 * @param iface
+	 * @param version
+	 * @param serviceBean
+	 * @param execution		DEFAULT, follow provider factory
+	 */
+	public void addService(String iface, String version, Object serviceBean, ExecutionType execution){
+		addService(iface, version, serviceBean, execution, null);
+	}
+
+	/**
+	 * add service, with execution type and bulkhead
+	 *
+	 * @param iface
+	 * @param version
+	 * @param serviceBean
+	 * @param execution		DEFAULT, follow provider factory
+	 * @param bulkhead		null, shared with other services
+	 */
+	public void addService(String iface, String version, Object serviceBean, ExecutionType execution, ServiceBulkhead bulkhead){
 		String serviceKey = makeServiceKey(iface, version);
 		serviceData.put(serviceKey, serviceBean);
+		serviceMethodData.put(serviceKey, ServiceMethodInvoker.build(serviceBean));
+		if (execution!=null && execution!=ExecutionType.DEFAULT) {
+			serviceExecutionData.put(serviceKey, execution);
+		}
+		if (bulkhead!=null && bulkhead.isEnabled()) {
+			serviceBulkheadData.put(serviceKey, bulkhead);
+		}
 
-		logger.info(">>>>>>>>>>> xxl-rpc, provider factory add service success. serviceKey = {}, serviceBean = {}", serviceKey, serviceBean.getClass());
+		logger.info(">>>>>>>>>>> xxl-rpc, provider factory add service success. serviceKey = {}, serviceBean = {}, execution = {}, bulkhead = {}", serviceKey, serviceBean.getClass(), execution, serviceBulkheadData.get(serviceKey));
+	}
+
+	/**
+	 * service bulkhead, with metrics
+	 *
+	 * @param serviceKey
+	 * @return	null if service without bulkhead
+	 */
+	public ServiceBulkhead getServiceBulkhead(String serviceKey) {
+		return serviceBulkheadData.get(serviceKey);
 	}
 	//在返回结果给客户端时调用;
 	//xxlRpcProviderFactory.invokeService(xxlRpcRequest);
@@ -208,6 +693,42 @@ public class XxlRpcProviderFactory {
 	 * @return
 	 */
 	public XxlRpcResponse invokeService(XxlRpcRequest xxlRpcRequest) {
+		return invokeService(xxlRpcRequest, System.currentTimeMillis());
+	}
+
+	/**
+	 * invoke service, wait for response in current thread (async service wait until complete or request deadline)
+	 * 同步等待响应，仅用于自身持有线程且无法异步写响应的 server（如 servlet）
+	 *
+	 * @param xxlRpcRequest
+	 * @param arriveMillisTime	request arrive time on server
+	 * @return
+	 */
+	public XxlRpcResponse invokeService(XxlRpcRequest xxlRpcRequest, long arriveMillisTime) {
+		return invokeServiceAsync(xxlRpcRequest, arriveMillisTime).join();
+	}
+
+	private final AtomicLong expiredRequestCount = new AtomicLong(0);
+
+	/**
+	 * expired request count, dropped without invoke (deadline exceeded before invoke)
+	 *
+	 * @return
+	 */
+	public long getExpiredRequestCount() {
+		return expiredRequestCount.get();
+	}
+
+	/**
+	 * invoke service, with request deadline (arrive time + client timeout)
+	 * 请求在服务端排队超过客户端超时时间时（客户端已超时放弃），不再调用服务，直接快速失败；
+	 * 异步服务（返回 CompletionStage）不阻塞当前线程，完成时再响应，超过剩余超时时间则以超时错误响应
+	 *
+	 * @param xxlRpcRequest
+	 * @param arriveMillisTime	request arrive time on server (io thread)
+	 * @return	response future, never complete exceptionally (error in response)
+	 */
+	public CompletableFuture<XxlRpcResponse> invokeServiceAsync(XxlRpcRequest xxlRpcRequest, long arriveMillisTime) {
 
 		//  make response
 		XxlRpcResponse xxlRpcResponse = new XxlRpcResponse();
@@ -220,32 +741,46 @@ public class XxlRpcProviderFactory {
 		// valid
 		if (serviceBean == null) {
 			xxlRpcResponse.setErrorMsg("The serviceKey["+ serviceKey +"] not found.");
-			return xxlRpcResponse;
+			return CompletableFuture.completedFuture(xxlRpcResponse);
 		}
 
 		if (System.currentTimeMillis() - xxlRpcRequest.getCreateMillisTime() > 3*60*1000) {
 			xxlRpcResponse.setErrorMsg("The timestamp difference between admin and executor exceeds the limit.");
-			return xxlRpcResponse;
+			return CompletableFuture.completedFuture(xxlRpcResponse);
 		}
 		if (accessToken!=null && accessToken.trim().length()>0 && !accessToken.trim().equals(xxlRpcRequest.getAccessToken())) {
 			xxlRpcResponse.setErrorMsg("The access token[" + xxlRpcRequest.getAccessToken() + "] is wrong.");
-			return xxlRpcResponse;
+			return CompletableFuture.completedFuture(xxlRpcResponse);
+		}
+
+		// deadline, client timeout relative to server arrive time (no clock skew)
+		if (xxlRpcRequest.getTimeout() > 0 && arriveMillisTime > 0) {
+			long waitMillisTime = System.currentTimeMillis() - arriveMillisTime;
+			if (waitMillisTime >= xxlRpcRequest.getTimeout()) {
+				expiredRequestCount.incrementAndGet();
+				logger.debug(">>>>>>>>>>> xxl-rpc, provider drop expired request, requestId = {}, wait = {}ms, timeout = {}ms", xxlRpcRequest.getRequestId(), waitMillisTime, xxlRpcRequest.getTimeout());
+
+				xxlRpcResponse.setErrorMsg("The request deadline exceeded, waited " + waitMillisTime + "ms on server, timeout " + xxlRpcRequest.getTimeout() + "ms.");
+				return CompletableFuture.completedFuture(xxlRpcResponse);
+			}
 		}
 
 		try {
-			// invoke 反射调用,返回结果
-			Class<?> serviceClass = serviceBean.getClass();
+			// invoke, by method dispatch table (MethodHandle, build when add service), 返回结果
 			String methodName = xxlRpcRequest.getMethodName();
 			Class<?>[] parameterTypes = xxlRpcRequest.getParameterTypes();
 			Object[] parameters = xxlRpcRequest.getParameters();
 
-            Method method = serviceClass.getMethod(methodName, parameterTypes);
-            method.setAccessible(true);
-			Object result = method.invoke(serviceBean, parameters);
+			ServiceMethodInvoker methodInvoker = ServiceMethodInvoker.find(serviceMethodData.get(serviceKey).get(methodName), parameterTypes);
+			if (methodInvoker == null) {
+				throw new NoSuchMethodException(serviceBean.getClass().getName() + "." + methodName + ((parameterTypes!=null)?Arrays.toString(parameterTypes):"[]"));
+			}
+			Object result = methodInvoker.invoke(parameters);
 
-			/*FastClass serviceFastClass = FastClass.create(serviceClass);
-			FastMethod serviceFastMethod = serviceFastClass.getMethod(methodName, parameterTypes);
-			Object result = serviceFastMethod.invoke(serviceBean, parameters);*/
+			// async service, method return CompletableFuture (CompletionStage), response when complete
+			if (result instanceof CompletionStage) {
+				return completeAsync(xxlRpcRequest, arriveMillisTime, (CompletionStage<?>) result, xxlRpcResponse);
+			}
 
 			xxlRpcResponse.setResult(result);
 		} catch (Throwable t) {
@@ -254,7 +789,68 @@ public class XxlRpcProviderFactory {
 			xxlRpcResponse.setErrorMsg(ThrowableUtil.toString(t));
 		}
 
-		return xxlRpcResponse;
+		return CompletableFuture.completedFuture(xxlRpcResponse);
+	}
+
+	/**
+	 * async service response, complete with service result, or timeout error when request deadline exceeded
+	 */
+	private CompletableFuture<XxlRpcResponse> completeAsync(final XxlRpcRequest xxlRpcRequest,
+															final long arriveMillisTime,
+															CompletionStage<?> resultStage,
+															final XxlRpcResponse xxlRpcResponse) {
+		final CompletableFuture<XxlRpcResponse> responseFuture = new CompletableFuture<XxlRpcResponse>();
+
+		// deadline, stop waiting when remaining timeout used up (client already give up)
+		Timeout timeoutHandle = null;
+		if (xxlRpcRequest.getTimeout() > 0) {
+			long remainMillisTime = xxlRpcRequest.getTimeout() - (System.currentTimeMillis() - ((arriveMillisTime>0)?arriveMillisTime:System.currentTimeMillis()));
+			timeoutHandle = getTimeoutTimer().newTimeout(new TimerTask() {
+				@Override
+				public void run(Timeout timeout) throws Exception {
+					XxlRpcResponse timeoutResponse = new XxlRpcResponse();
+					timeoutResponse.setRequestId(xxlRpcRequest.getRequestId());
+					timeoutResponse.setErrorMsg("The request deadline exceeded, async service not complete in timeout " + xxlRpcRequest.getTimeout() + "ms.");
+					if (responseFuture.complete(timeoutResponse)) {
+						expiredRequestCount.incrementAndGet();
+					}
+				}
+			}, Math.max(remainMillisTime, 0), TimeUnit.MILLISECONDS);
+		}
+
+		final Timeout finalTimeoutHandle = timeoutHandle;
+		resultStage.whenComplete(new BiConsumer<Object, Throwable>() {
+			@Override
+			public void accept(Object result, Throwable t) {
+				if (finalTimeoutHandle != null) {
+					finalTimeoutHandle.cancel();
+				}
+				if (t != null) {
+					if (t instanceof CompletionException && t.getCause() != null) {
+						t = t.getCause();
+					}
+					logger.error("xxl-rpc provider invokeService error.", t);
+					xxlRpcResponse.setErrorMsg(ThrowableUtil.toString(t));
+				} else {
+					xxlRpcResponse.setResult(result);
+				}
+				responseFuture.complete(xxlRpcResponse);
+			}
+		});
+		return responseFuture;
+	}
+
+	// 时间轮，异步服务剩余超时时间到期未完成时，以超时错误响应
+	private volatile HashedWheelTimer timeoutTimer;
+	private HashedWheelTimer getTimeoutTimer() {
+		if (timeoutTimer == null) {
+			synchronized (this) {
+				if (timeoutTimer == null) {
+					timeoutTimer = new HashedWheelTimer(new DefaultThreadFactory("xxl-rpc, XxlRpcProviderFactory-timeoutTimer", true), 10, TimeUnit.MILLISECONDS, 512);
+				}
+			}
+		}
+		return timeoutTimer;
 	}
 
 }
@@ -1,5 +1,7 @@
 package com.xxl.rpc.remoting.provider.annotation;
 
+import com.xxl.rpc.remoting.provider.ExecutionType;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Inherited;
 import java.lang.annotation.Retention;
@@ -21,4 +23,32 @@ public @interface XxlRpcService {
      */
     String version() default "";
 
+    /**
+     * service execution type, default follow provider factory
+     *
+     * @return
+     */
+    ExecutionType execution() default ExecutionType.DEFAULT;
+
+    /**
+     * bulkhead, isolated thread pool size of this service; 0 means use shared execution
+     *
+     * @return
+     */
+    int bulkheadThreads() default 0;
+
+    /**
+     * bulkhead, queue size of isolated thread pool
+     *
+     * @return
+     */
+    int bulkheadQueueSize() default 100;
+
+    /**
+     * bulkhead, max concurrent invoke of this service (semaphore), reject when full; 0 means no limit
+     *
+     * @return
+     */
+    int bulkheadMaxConcurrency() default 0;
+
 }
@@ -3,6 +3,11 @@ package com.xxl.rpc.serialize;
 import com.xxl.rpc.serialize.impl.*;
 import com.xxl.rpc.util.XxlRpcException;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
 /**
  * serializer
  *
@@ -16,6 +21,39 @@ public abstract class Serializer {
 	
 	public abstract <T> byte[] serialize(T obj);
 	public abstract <T> Object deserialize(byte[] bytes, Class<T> clazz);
+
+	// ---------------------- stream (hook) ----------------------
+
+	/**
+	 * stream support, codec will serialize to / deserialize from net buffer directly, avoid byte[] copy
+	 *
+	 * @return
+	 */
+	public boolean isStreamSupported() {
+		return false;
+	}
+
+	public <T> void serialize(T obj, OutputStream os) {
+		try {
+			os.write(serialize(obj));
+		} catch (IOException e) {
+			throw new XxlRpcException(e);
+		}
+	}
+
+	public <T> Object deserialize(InputStream is, Class<T> clazz) {
+		try {
+			ByteArrayOutputStream os = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			int len;
+			while ((len = is.read(buffer)) != -1) {
+				os.write(buffer, 0, len);
+			}
+			return deserialize(os.toByteArray(), clazz);
+		} catch (IOException e) {
+			throw new XxlRpcException(e);
+		}
+	}
 	
 	public enum SerializeEnum {
 		HESSIAN(HessianSerializer.class),
@@ -8,6 +8,8 @@ import com.xxl.rpc.util.XxlRpcException;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * hessian serialize
@@ -18,31 +20,60 @@ public class Hessian1Serializer extends Serializer {
 	@Override
 	public <T> byte[] serialize(T obj){
 		ByteArrayOutputStream os = new ByteArrayOutputStream();
-		HessianOutput ho = new HessianOutput(os);
 		try {
-			ho.writeObject(obj);
-			ho.flush();
+			serialize(obj, os);
 			byte[] result = os.toByteArray();
 			return result;
-		} catch (IOException e) {
-			throw new XxlRpcException(e);
 		} finally {
 			try {
-				ho.close();
+				os.close();
 			} catch (IOException e) {
 				throw new XxlRpcException(e);
 			}
+		}
+	}
+
+	@Override
+	public <T> Object deserialize(byte[] bytes, Class<T> clazz) {
+		ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+		try {
+			return deserialize(is, clazz);
+		} finally {
 			try {
-				os.close();
+				is.close();
 			} catch (IOException e) {
 				throw new XxlRpcException(e);
 			}
 		}
 	}
 
+
+	// ---------------------- stream ----------------------
+
 	@Override
-	public <T> Object deserialize(byte[] bytes, Class<T> clazz) {
-		ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+	public boolean isStreamSupported() {
+		return true;
+	}
+
+	@Override
+	public <T> void serialize(T obj, OutputStream os) {
+		HessianOutput ho = new HessianOutput(os);
+		try {
+			ho.writeObject(obj);
+			ho.flush();
+		} catch (IOException e) {
+			throw new XxlRpcException(e);
+		} finally {
+			try {
+				ho.close();
+			} catch (IOException e) {
+				throw new XxlRpcException(e);
+			}
+		}
+	}
+
+	@Override
+	public <T> Object deserialize(InputStream is, Class<T> clazz) {
 		HessianInput hi = new HessianInput(is);
 		try {
 			Object result = hi.readObject();
@@ -55,11 +86,6 @@ public class Hessian1Serializer extends Serializer {
 			} catch (Exception e) {
 				throw new XxlRpcException(e);
 			}
-			try {
-				is.close();
-			} catch (IOException e) {
-				throw new XxlRpcException(e);
-			}
 		}
 	}
 	
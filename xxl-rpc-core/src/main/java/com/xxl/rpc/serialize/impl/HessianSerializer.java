@@ -8,6 +8,8 @@ import com.xxl.rpc.util.XxlRpcException;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * hessian serialize
@@ -18,32 +20,60 @@ public class HessianSerializer extends Serializer {
 	@Override
 	public <T> byte[] serialize(T obj){
 		ByteArrayOutputStream os = new ByteArrayOutputStream();
-		Hessian2Output ho = new Hessian2Output(os);
 		try {
-			ho.writeObject(obj);
-			ho.flush();
+			serialize(obj, os);
 			byte[] result = os.toByteArray();
 			return result;
-		} catch (IOException e) {
-			throw new XxlRpcException(e);
 		} finally {
 			try {
-				ho.close();
+				os.close();
 			} catch (IOException e) {
 				throw new XxlRpcException(e);
 			}
+		}
+	}
+
+	@Override
+	public <T> Object deserialize(byte[] bytes, Class<T> clazz) {
+		ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+		try {
+			return deserialize(is, clazz);
+		} finally {
 			try {
-				os.close();
+				is.close();
 			} catch (IOException e) {
 				throw new XxlRpcException(e);
 			}
 		}
+	}
+
+
+	// ---------------------- stream ----------------------
 
+	@Override
+	public boolean isStreamSupported() {
+		return true;
 	}
 
 	@Override
-	public <T> Object deserialize(byte[] bytes, Class<T> clazz) {
-		ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+	public <T> void serialize(T obj, OutputStream os) {
+		Hessian2Output ho = new Hessian2Output(os);
+		try {
+			ho.writeObject(obj);
+			ho.flush();
+		} catch (IOException e) {
+			throw new XxlRpcException(e);
+		} finally {
+			try {
+				ho.close();
+			} catch (IOException e) {
+				throw new XxlRpcException(e);
+			}
+		}
+	}
+
+	@Override
+	public <T> Object deserialize(InputStream is, Class<T> clazz) {
 		Hessian2Input hi = new Hessian2Input(is);
 		try {
 			Object result = hi.readObject();
@@ -56,11 +86,6 @@ public class HessianSerializer extends Serializer {
 			} catch (Exception e) {
 				throw new XxlRpcException(e);
 			}
-			try {
-				is.close();
-			} catch (IOException e) {
-				throw new XxlRpcException(e);
-			}
 		}
 	}
 	
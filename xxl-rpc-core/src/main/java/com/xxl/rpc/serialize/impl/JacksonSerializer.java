@@ -8,6 +8,8 @@ import com.xxl.rpc.serialize.Serializer;
 import com.xxl.rpc.util.XxlRpcException;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * Jackson serializer
@@ -45,4 +47,30 @@ public class JacksonSerializer extends Serializer {
 		}
 	}
 
+
+	// ---------------------- stream ----------------------
+
+	@Override
+	public boolean isStreamSupported() {
+		return true;
+	}
+
+	@Override
+	public <T> void serialize(T obj, OutputStream os) {
+		try {
+			objectMapper.writeValue(os, obj);
+		} catch (IOException e) {
+			throw new XxlRpcException(e);
+		}
+	}
+
+	@Override
+	public <T> Object deserialize(InputStream is, Class<T> clazz) {
+		try {
+			return objectMapper.readValue(is, clazz);
+		} catch (IOException e) {
+			throw new XxlRpcException(e);
+		}
+	}
+
 }
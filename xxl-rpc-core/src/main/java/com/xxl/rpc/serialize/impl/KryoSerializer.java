@@ -9,6 +9,8 @@ import com.xxl.rpc.util.XxlRpcException;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * kryo serializer
@@ -33,13 +35,47 @@ public class KryoSerializer extends Serializer {
     @Override
     public <T> byte[] serialize(T obj) {
         ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try {
+            serialize(obj, os);
+            byte[] result = os.toByteArray();
+            return result;
+        } finally {
+            try {
+                os.close();
+            } catch (IOException e) {
+                throw new XxlRpcException(e);
+            }
+        }
+    }
+
+    @Override
+    public <T> Object deserialize(byte[] bytes, Class<T> clazz) {
+        ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+        try {
+            return deserialize(is, clazz);
+        } finally {
+            try {
+                is.close();
+            } catch (IOException e) {
+                throw new XxlRpcException(e);
+            }
+        }
+    }
+
+
+    // ---------------------- stream ----------------------
+
+    @Override
+    public boolean isStreamSupported() {
+        return true;
+    }
+
+    @Override
+    public <T> void serialize(T obj, OutputStream os) {
         Output output = new Output(os);
         try {
             kryoLocal.get().writeObject(output, obj);
             output.flush();
-
-            byte[] result = os.toByteArray();
-            return result;
         } catch (Exception e) {
             throw new XxlRpcException(e);
         } finally {
@@ -48,17 +84,11 @@ public class KryoSerializer extends Serializer {
             } catch (Exception e) {
                 throw new XxlRpcException(e);
             }
-            try {
-                os.close();
-            } catch (IOException e) {
-                throw new XxlRpcException(e);
-            }
         }
     }
 
     @Override
-    public <T> Object deserialize(byte[] bytes, Class<T> clazz) {
-        ByteArrayInputStream is = new ByteArrayInputStream(bytes);
+    public <T> Object deserialize(InputStream is, Class<T> clazz) {
         Input input = new Input(is);
         try {
             Object result = kryoLocal.get().readObject(input, clazz);
@@ -71,11 +101,6 @@ public class KryoSerializer extends Serializer {
             } catch (Exception e) {
                 throw new XxlRpcException(e);
             }
-            try {
-                is.close();
-            } catch (IOException e) {
-                throw new XxlRpcException(e);
-            }
         }
     }
 
@@ -9,6 +9,8 @@ import io.protostuff.runtime.RuntimeSchema;
 import org.objenesis.Objenesis;
 import org.objenesis.ObjenesisStd;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -51,7 +53,7 @@ public class ProtostuffSerializer extends Serializer {
 	@Override
 	public <T> Object deserialize(byte[] bytes, Class<T> clazz) {
 		try {
-            T message = (T) objenesis.newInstance(clazz);
+            T message = objenesis.newInstance(clazz);
             Schema<T> schema = getSchema(clazz);
             ProtostuffIOUtil.mergeFrom(bytes, message, schema);
             return message;
@@ -59,5 +61,40 @@ public class ProtostuffSerializer extends Serializer {
             throw new XxlRpcException(e);
         }
 	}
+
+
+    // ---------------------- stream ----------------------
+
+    @Override
+    public boolean isStreamSupported() {
+        return true;
+    }
+
+    @Override
+    public <T> void serialize(T obj, OutputStream os) {
+        @SuppressWarnings("unchecked")
+        Class<T> cls = (Class<T>) obj.getClass();
+        LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+        try {
+            Schema<T> schema = getSchema(cls);
+            ProtostuffIOUtil.writeTo(os, obj, schema, buffer);
+        } catch (Exception e) {
+            throw new XxlRpcException(e);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public <T> Object deserialize(InputStream is, Class<T> clazz) {
+        try {
+            T message = objenesis.newInstance(clazz);
+            Schema<T> schema = getSchema(clazz);
+            ProtostuffIOUtil.mergeFrom(is, message, schema);
+            return message;
+        } catch (Exception e) {
+            throw new XxlRpcException(e);
+        }
+    }
     
 }
@@ -0,0 +1,309 @@
+package com.xxl.rpc.util;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * concurrent map, primitive long key, striped open-addressing (linear probing)
+ * long 主键并发 Map：按 key 分段加锁写入，读取无锁（乐观读，校验失败时降级读锁），段内开放寻址，避免 key 装箱及 String.hashCode 计算
+ *
+ * @author xxl-rpc contributors
+ */
+public class LongConcurrentMap<V> {
+
+    private static final int DEFAULT_STRIPES = 64;
+    private static final int DEFAULT_SEGMENT_CAPACITY = 64;
+
+    private final Segment[] segments;
+    private final int stripeMask;
+
+    public LongConcurrentMap() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public LongConcurrentMap(int stripes) {
+        int size = powerOfTwo(stripes);
+        this.segments = new Segment[size];
+        for (int i = 0; i < size; i++) {
+            segments[i] = new Segment(DEFAULT_SEGMENT_CAPACITY);
+        }
+        this.stripeMask = size - 1;
+    }
+
+
+    // ---------------------- map ----------------------
+
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("value");
+        }
+        long hash = mix(key);
+        return (V) segmentFor(hash).put(key, (int) hash, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        long hash = mix(key);
+        return (V) segmentFor(hash).get(key, (int) hash);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        long hash = mix(key);
+        return (V) segmentFor(hash).remove(key, (int) hash);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> 32) & stripeMask];     // high bits for stripe, low bits for slot
+    }
+
+
+    // ---------------------- segment ----------------------
+
+    private static class Segment {
+
+        private final StampedLock lock = new StampedLock();
+        private final int minCapacity;
+
+        // key 0 stored separately, 0 marks empty slot
+        private boolean hasZeroKey;
+        private Object zeroValue;
+
+        // keys and values, replaced together when resize
+        private Table table;
+        private int size;
+
+        Segment(int capacity) {
+            this.minCapacity = powerOfTwo(capacity);
+            this.table = new Table(minCapacity);
+        }
+
+        Object put(long key, int hash, Object value) {
+            long stamp = lock.writeLock();
+            try {
+                if (key == 0) {
+                    Object old = zeroValue;
+                    if (!hasZeroKey) {
+                        hasZeroKey = true;
+                        size++;
+                    }
+                    zeroValue = value;
+                    return old;
+                }
+
+                Table table = this.table;
+                int mask = table.keys.length - 1;
+                int index = hash & mask;
+                while (table.keys[index] != 0) {
+                    if (table.keys[index] == key) {
+                        Object old = table.values[index];
+                        table.values[index] = value;
+                        return old;
+                    }
+                    index = (index + 1) & mask;
+                }
+                table.keys[index] = key;
+                table.values[index] = value;
+                if (++size > (table.keys.length >> 1)) {      // load factor 0.5
+                    resize(table.keys.length << 1);
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * optimistic read without lock, retry with read lock when write happened meanwhile
+         */
+        Object get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                Object value = find(key, hash);
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            }
+
+            stamp = lock.readLock();
+            try {
+                return find(key, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * may run concurrently with write (optimistic), must not fail or loop forever on inconsistent table; validated by caller
+         */
+        private Object find(long key, int hash) {
+            if (key == 0) {
+                return hasZeroKey?zeroValue:null;
+            }
+
+            Table table = this.table;
+            long[] keys = table.keys;
+            int mask = keys.length - 1;
+            int index = hash & mask;
+            long item;
+            for (int probe = 0; probe < keys.length && (item = keys[index]) != 0; probe++) {
+                if (item == key) {
+                    return table.values[index];
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        Object remove(long key, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                if (key == 0) {
+                    Object old = zeroValue;
+                    if (hasZeroKey) {
+                        hasZeroKey = false;
+                        zeroValue = null;
+                        size--;
+                    }
+                    return old;
+                }
+
+                Table table = this.table;
+                int mask = table.keys.length - 1;
+                int index = hash & mask;
+                long item;
+                while ((item = table.keys[index]) != 0) {
+                    if (item == key) {
+                        Object old = table.values[index];
+                        shiftBack(table, index);
+                        size--;
+                        // shrink when load below 1/8 (to 1/4), release memory after burst
+                        if (table.keys.length > minCapacity && size < (table.keys.length >> 3)) {
+                            resize(table.keys.length >> 1);
+                        }
+                        return old;
+                    }
+                    index = (index + 1) & mask;
+                }
+                return null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                table = new Table(minCapacity);
+                hasZeroKey = false;
+                zeroValue = null;
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * backward shift deletion, keep probe chain without tombstone
+         */
+        private static void shiftBack(Table table, int hole) {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = keys.length - 1;
+
+            int index = hole;
+            while (true) {
+                index = (index + 1) & mask;
+                long key = keys[index];
+                if (key == 0) {
+                    break;
+                }
+                int home = (int) mix(key) & mask;
+                // move entry to hole, when its home slot is not in (hole, index]
+                if (((index - home) & mask) >= ((index - hole) & mask)) {
+                    keys[hole] = key;
+                    values[hole] = values[index];
+                    hole = index;
+                }
+            }
+            keys[hole] = 0;
+            values[hole] = null;
+        }
+
+        private void resize(int newLength) {
+            Table oldTable = this.table;
+            Table newTable = new Table(newLength);
+            int mask = newLength - 1;
+
+            for (int i = 0; i < oldTable.keys.length; i++) {
+                long key = oldTable.keys[i];
+                if (key != 0) {
+                    int index = (int) mix(key) & mask;
+                    while (newTable.keys[index] != 0) {
+                        index = (index + 1) & mask;
+                    }
+                    newTable.keys[index] = key;
+                    newTable.values[index] = oldTable.values[i];
+                }
+            }
+            this.table = newTable;
+        }
+    }
+
+    private static class Table {
+        private final long[] keys;
+        private final Object[] values;
+
+        Table(int length) {
+            this.keys = new long[length];
+            this.values = new Object[length];
+        }
+    }
+
+
+    // ---------------------- util ----------------------
+
+    /**
+     * murmur3 fmix64, spread sequential key
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static int powerOfTwo(int value) {
+        int result = 1;
+        while (result < value) {
+            result <<= 1;
+        }
+        return result;
+    }
+
+}
@@ -14,12 +14,25 @@ public class ThreadPoolUtil {
      * @return
      */
     public static ThreadPoolExecutor makeServerThreadPool(final String serverType){
+        return makeServerThreadPool(serverType, 60, 300, 1000);
+    }
+
+    /**
+     * make server thread pool
+     *
+     * @param serverType
+     * @param corePoolSize
+     * @param maxPoolSize
+     * @param queueSize
+     * @return
+     */
+    public static ThreadPoolExecutor makeServerThreadPool(final String serverType, int corePoolSize, int maxPoolSize, int queueSize){
         ThreadPoolExecutor serverHandlerPool = new ThreadPoolExecutor(
-                60,
-                300,
+                corePoolSize,
+                maxPoolSize,
                 60L,
                 TimeUnit.SECONDS,
-                new LinkedBlockingQueue<Runnable>(1000),
+                new LinkedBlockingQueue<Runnable>(queueSize),
                 //线程工厂，创建一个 包含 以severType类型为名称 的线程
                 new ThreadFactory() {
                     @Override
@@ -0,0 +1,16 @@
+package com.xxl.rpc.util;
+
+/**
+ * provider overload, request rejected without invoke (concurrency limit / bulkhead full / thread pool exhausted)
+ * 服务端过载拒绝，请求未被执行，可换其他服务节点重试或退避
+ *
+ * @author xxl-rpc contributors
+ */
+public class XxlRpcOverloadException extends XxlRpcException {
+    private static final long serialVersionUID = 42L;
+
+    public XxlRpcOverloadException(String msg) {
+        super(msg);
+    }
+
+}
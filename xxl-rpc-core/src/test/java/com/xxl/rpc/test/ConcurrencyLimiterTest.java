@@ -0,0 +1,85 @@
+package com.xxl.rpc.test;
+
+import com.xxl.rpc.remoting.provider.ConcurrencyLimiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * concurrency limiter check: acquire/release/cancel accounting, reject at limit, decrease when dropped, concurrent release
+ *
+ * @author xxl-rpc contributors
+ */
+public class ConcurrencyLimiterTest {
+
+    public static void main(String[] args) throws Exception {
+        accounting();
+        decrease();
+        concurrent();
+        System.out.println("ConcurrencyLimiterTest ok");
+    }
+
+    private static void accounting() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 4, 1, 10);
+        for (int i = 0; i < 4; i++) {
+            check(limiter.tryAcquire(), "acquire " + i);
+        }
+        check(!limiter.tryAcquire(), "reject at limit");
+        check(limiter.getInFlight() == 4 && limiter.getRejectedCount() == 1, "in-flight and rejected count");
+
+        limiter.cancel();
+        check(limiter.getInFlight() == 3 && limiter.getLimit() == 4, "cancel, without limit adjust");
+        for (int i = 0; i < 3; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(1), false);
+        }
+        check(limiter.getInFlight() == 0, "release all");
+    }
+
+    private static void decrease() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 100, 10, 1000);
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(1), true);
+        }
+        check(limiter.getLimit() == 10, "decrease to min limit when dropped, actual " + limiter.getLimit());
+        check(limiter.getInFlight() == 0, "in-flight after dropped");
+    }
+
+    private static void concurrent() throws Exception {
+        final ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", 50, 10, 1000);
+        final AtomicInteger acquired = new AtomicInteger();
+        final AtomicInteger overLimit = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 100000; j++) {
+                        if (limiter.tryAcquire()) {
+                            acquired.incrementAndGet();
+                            if (limiter.getInFlight() > 1000) {
+                                overLimit.incrementAndGet();
+                            }
+                            limiter.release(TimeUnit.MICROSECONDS.toNanos(50 + (j & 7)), (j % 1000) == 0);
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        check(limiter.getInFlight() == 0, "concurrent in-flight " + limiter.getInFlight());
+        check(overLimit.get() == 0, "in-flight over max limit");
+        check(limiter.getLimit() >= 10 && limiter.getLimit() <= 1000, "limit in range " + limiter.getLimit());
+        check(acquired.get() + limiter.getRejectedCount() == 800000, "acquired + rejected");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException("check fail: " + message);
+        }
+    }
+
+}
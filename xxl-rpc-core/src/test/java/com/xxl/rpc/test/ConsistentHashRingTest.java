@@ -0,0 +1,76 @@
+package com.xxl.rpc.test;
+
+import com.xxl.rpc.remoting.invoker.route.impl.ConsistentHashRing;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * consistent hash ring check: lookup same as TreeMap ring, wraparound, key movement when address added
+ *
+ * @author xxl-rpc contributors
+ */
+public class ConsistentHashRingTest {
+
+    public static void main(String[] args) {
+        TreeSet<String> addressSet = new TreeSet<String>(Arrays.asList("127.0.0.1:7080", "127.0.0.1:7081", "127.0.0.1:7082"));
+        ConsistentHashRing ring = new ConsistentHashRing(addressSet, 100);
+
+        // lookup, first virtual node clockwise (same as TreeMap ceiling, wrap to first)
+        TreeMap<Long, String> treeRing = new TreeMap<Long, String>();
+        for (String address : addressSet) {
+            for (int i = 0; i < 100; i++) {
+                treeRing.put(ConsistentHashRing.hash("SHARD-" + address + "-NODE-" + i), address);
+            }
+        }
+        Random random = new Random(1);
+        for (int i = 0; i < 100000; i++) {
+            long hash = random.nextLong();
+            Map.Entry<Long, String> entry = treeRing.ceilingEntry(hash);
+            String expect = (entry != null)?entry.getValue():treeRing.firstEntry().getValue();
+            check(expect.equals(ring.select(hash)), "lookup " + hash);
+        }
+        for (Map.Entry<Long, String> entry : treeRing.entrySet()) {
+            check(entry.getValue().equals(ring.select(entry.getKey())), "lookup exact node " + entry.getKey());
+        }
+
+        // wraparound, after last node
+        check(treeRing.firstEntry().getValue().equals(ring.select(treeRing.lastKey() + 1)), "wraparound after last node");
+        check(treeRing.firstEntry().getValue().equals(ring.select(Long.MIN_VALUE)), "before first node");
+
+        // empty ring
+        check(new ConsistentHashRing(new TreeSet<String>(), 100).select(1) == null, "empty ring");
+
+        // matches
+        check(ring.matches(new TreeSet<String>(addressSet), 100), "matches same address set");
+        check(!ring.matches(addressSet, 50), "not matches virtual node num");
+
+        // address added, key only moves to new address
+        TreeSet<String> newAddressSet = new TreeSet<String>(addressSet);
+        newAddressSet.add("127.0.0.1:7083");
+        ConsistentHashRing newRing = new ConsistentHashRing(newAddressSet, 100);
+        int moved = 0;
+        for (int i = 0; i < 10000; i++) {
+            long hash = ConsistentHashRing.hash("key-" + i);
+            String before = ring.select(hash);
+            String after = newRing.select(hash);
+            if (!before.equals(after)) {
+                check("127.0.0.1:7083".equals(after), "key moved to old address");
+                moved++;
+            }
+        }
+        check(moved > 1000 && moved < 4000, "moved about 1/4 keys, actual " + moved);
+
+        System.out.println("ConsistentHashRingTest ok, moved = " + moved);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException("check fail: " + message);
+        }
+    }
+
+}
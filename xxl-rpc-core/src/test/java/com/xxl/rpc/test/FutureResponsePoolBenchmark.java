@@ -0,0 +1,121 @@
+package com.xxl.rpc.test;
+
+import com.xxl.rpc.util.LongConcurrentMap;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * future-response pool benchmark, put/get/remove per call, with outstanding calls in pool
+ *
+ * uuid        : ConcurrentHashMap<String, V>, uuid request id (before)
+ * boxedLong   : ConcurrentHashMap<Long, V>
+ * primitiveLong : LongConcurrentMap<V>
+ *
+ * @author xxl-rpc contributors
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class FutureResponsePoolBenchmark {
+
+    private static final int KEY_RANGE = 1 << 20;
+    private static final int THREAD_KEY_RANGE = 1 << 14;
+
+    @State(Scope.Benchmark)
+    public static class PoolState {
+
+        @Param({"10000", "100000"})
+        public int outstanding;
+
+        String[] uuidKeys;
+        ConcurrentMap<String, Object> uuidPool;
+        ConcurrentMap<Long, Object> boxedLongPool;
+        LongConcurrentMap<Object> primitiveLongPool;
+
+        final AtomicInteger threadIndex = new AtomicInteger(0);
+        final Object value = new Object();
+
+        @Setup(Level.Trial)
+        public void setup() {
+            uuidKeys = new String[KEY_RANGE];
+            for (int i = 0; i < KEY_RANGE; i++) {
+                uuidKeys[i] = UUID.randomUUID().toString();
+            }
+
+            uuidPool = new ConcurrentHashMap<String, Object>();
+            boxedLongPool = new ConcurrentHashMap<Long, Object>();
+            primitiveLongPool = new LongConcurrentMap<Object>();
+
+            // outstanding calls, key [1, outstanding]
+            for (int i = 1; i <= outstanding; i++) {
+                uuidPool.put(uuidKeys[i], value);
+                boxedLongPool.put((long) i, value);
+                primitiveLongPool.put(i, value);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class CallState {
+        int base;
+        int cursor;
+
+        @Setup(Level.Trial)
+        public void setup(PoolState pool) {
+            // disjoint key range per thread, after outstanding keys
+            base = pool.outstanding + 1 + pool.threadIndex.getAndIncrement() * THREAD_KEY_RANGE;
+            cursor = 0;
+        }
+
+        int nextKey() {
+            cursor = (cursor + 1) & (THREAD_KEY_RANGE - 1);
+            return base + cursor;
+        }
+    }
+
+
+    @Benchmark
+    public Object uuid(PoolState pool, CallState call) {
+        String requestId = pool.uuidKeys[call.nextKey()];
+        pool.uuidPool.put(requestId, pool.value);
+        pool.uuidPool.get(requestId);
+        return pool.uuidPool.remove(requestId);
+    }
+
+    @Benchmark
+    public Object boxedLong(PoolState pool, CallState call) {
+        long requestId = call.nextKey();
+        pool.boxedLongPool.put(requestId, pool.value);
+        pool.boxedLongPool.get(requestId);
+        return pool.boxedLongPool.remove(requestId);
+    }
+
+    @Benchmark
+    public Object primitiveLong(PoolState pool, CallState call) {
+        long requestId = call.nextKey();
+        pool.primitiveLongPool.put(requestId, pool.value);
+        pool.primitiveLongPool.get(requestId);
+        return pool.primitiveLongPool.remove(requestId);
+    }
+
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FutureResponsePoolBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+
+}
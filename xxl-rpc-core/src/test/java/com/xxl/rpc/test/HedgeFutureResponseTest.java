@@ -0,0 +1,182 @@
+package com.xxl.rpc.test;
+
+import com.xxl.rpc.remoting.invoker.XxlRpcInvokerFactory;
+import com.xxl.rpc.remoting.net.params.XxlRpcFutureResponse;
+import com.xxl.rpc.remoting.net.params.XxlRpcRequest;
+import com.xxl.rpc.remoting.net.params.XxlRpcResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * hedged future-response check: primary and hedge copy responses / caller remove race,
+ * notify exactly once and both removed from future-response pool
+ *
+ * @author xxl-rpc contributors
+ */
+public class HedgeFutureResponseTest {
+
+    private static final XxlRpcInvokerFactory invokerFactory = new XxlRpcInvokerFactory();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    public static void main(String[] args) throws Exception {
+        try {
+            primaryErrorThenRemove();
+            for (int i = 0; i < 10000; i++) {
+                responseRace();
+                responseRemoveRace();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        System.out.println("HedgeFutureResponseTest ok");
+    }
+
+    /**
+     * primary error ignored while hedge in flight, caller timeout remove: hedge copy removed too
+     */
+    private static void primaryErrorThenRemove() {
+        CountingFuture future = new CountingFuture();
+        XxlRpcFutureResponse primary = newFutureResponse(future);
+        XxlRpcFutureResponse hedge = newHedge(primary);
+
+        invokerFactory.notifyInvokerFuture(primary.getRequest().getRequestId(), response(primary, false));
+        check(future.count.get() == 0, "primary error ignored while hedge in flight");
+        check(invokerFactory.getInvokerFuture(hedge.getRequest().getRequestId()) != null, "hedge still in flight");
+
+        primary.removeInvokerFuture();
+        checkRemoved(primary, hedge);
+    }
+
+    /**
+     * primary and hedge success at the same time, notify once
+     */
+    private static void responseRace() throws Exception {
+        CountingFuture future = new CountingFuture();
+        final XxlRpcFutureResponse primary = newFutureResponse(future);
+        final XxlRpcFutureResponse hedge = newHedge(primary);
+
+        race(new Runnable() {
+            @Override
+            public void run() {
+                invokerFactory.notifyInvokerFuture(primary.getRequest().getRequestId(), response(primary, true));
+            }
+        }, new Runnable() {
+            @Override
+            public void run() {
+                invokerFactory.notifyInvokerFuture(hedge.getRequest().getRequestId(), response(hedge, true));
+            }
+        });
+        check(future.count.get() == 1, "notify once, actual " + future.count.get());
+        checkRemoved(primary, hedge);
+    }
+
+    /**
+     * hedge success and caller remove at the same time, notify at most once, nothing left in pool
+     */
+    private static void responseRemoveRace() throws Exception {
+        CountingFuture future = new CountingFuture();
+        final XxlRpcFutureResponse primary = newFutureResponse(future);
+        final XxlRpcFutureResponse hedge = newHedge(primary);
+
+        race(new Runnable() {
+            @Override
+            public void run() {
+                invokerFactory.notifyInvokerFuture(hedge.getRequest().getRequestId(), response(hedge, true));
+            }
+        }, new Runnable() {
+            @Override
+            public void run() {
+                primary.removeInvokerFuture();
+            }
+        });
+        check(future.count.get() <= 1, "notify at most once, actual " + future.count.get());
+        checkRemoved(primary, hedge);
+    }
+
+
+    private static XxlRpcFutureResponse newFutureResponse(CompletableFuture<Object> future) {
+        XxlRpcRequest request = new XxlRpcRequest();
+        request.setRequestId(invokerFactory.nextRequestId());
+        request.setCreateMillisTime(System.currentTimeMillis());
+        return new XxlRpcFutureResponse(invokerFactory, request, null, future, 0);
+    }
+
+    private static XxlRpcFutureResponse newHedge(XxlRpcFutureResponse primary) {
+        XxlRpcRequest request = new XxlRpcRequest();
+        request.setRequestId(invokerFactory.nextRequestId());
+        request.setCreateMillisTime(primary.getRequest().getCreateMillisTime());
+        XxlRpcFutureResponse hedge = new XxlRpcFutureResponse(invokerFactory, request, null, 0);
+        primary.bindHedge(hedge);
+        return hedge;
+    }
+
+    private static XxlRpcResponse response(XxlRpcFutureResponse futureResponse, boolean success) {
+        XxlRpcResponse response = new XxlRpcResponse();
+        response.setRequestId(futureResponse.getRequest().getRequestId());
+        if (success) {
+            response.setResult("ok");
+        } else {
+            response.setErrorMsg("error");
+        }
+        return response;
+    }
+
+    private static void race(Runnable first, Runnable second) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        Future<?> firstFuture = executor.submit(gate(start, first));
+        Future<?> secondFuture = executor.submit(gate(start, second));
+        start.countDown();
+        firstFuture.get();
+        secondFuture.get();
+    }
+
+    private static Runnable gate(final CountDownLatch start, final Runnable task) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                task.run();
+            }
+        };
+    }
+
+    private static void checkRemoved(XxlRpcFutureResponse primary, XxlRpcFutureResponse hedge) {
+        check(invokerFactory.getInvokerFuture(primary.getRequest().getRequestId()) == null, "primary removed");
+        check(invokerFactory.getInvokerFuture(hedge.getRequest().getRequestId()) == null, "hedge removed");
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException("check fail: " + message);
+        }
+    }
+
+    /**
+     * count complete, normal or exceptionally
+     */
+    private static class CountingFuture extends CompletableFuture<Object> {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public boolean complete(Object value) {
+            count.incrementAndGet();
+            return super.complete(value);
+        }
+
+        @Override
+        public boolean completeExceptionally(Throwable ex) {
+            count.incrementAndGet();
+            return super.completeExceptionally(ex);
+        }
+    }
+
+}
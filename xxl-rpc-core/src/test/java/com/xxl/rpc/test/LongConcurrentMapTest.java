@@ -0,0 +1,139 @@
+package com.xxl.rpc.test;
+
+import com.xxl.rpc.util.LongConcurrentMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * long concurrent map check: put/get/remove, collision chain with backward-shift delete, shrink, concurrent access
+ *
+ * @author xxl-rpc contributors
+ */
+public class LongConcurrentMapTest {
+
+    public static void main(String[] args) throws Exception {
+        putGetRemove();
+        collision();
+        growAndShrink();
+        concurrent();
+        System.out.println("LongConcurrentMapTest ok");
+    }
+
+    private static void putGetRemove() {
+        LongConcurrentMap<String> map = new LongConcurrentMap<String>();
+        check(map.put(1, "a") == null, "put new");
+        check("a".equals(map.put(1, "b")), "put replace, return old");
+        check("b".equals(map.get(1)), "get");
+        check(map.put(0, "zero") == null && "zero".equals(map.get(0)), "zero key");
+        check(map.size() == 2, "size");
+        check("b".equals(map.remove(1)) && map.get(1) == null, "remove");
+        check("zero".equals(map.remove(0)) && map.get(0) == null, "remove zero key");
+        check(map.remove(1) == null && map.size() == 0, "remove absent");
+    }
+
+    /**
+     * keys with same home slot (one stripe, 64 slots), remove from middle of probe chain
+     */
+    private static void collision() {
+        List<Long> keys = new ArrayList<Long>();
+        for (long key = 1; keys.size() < 8; key++) {
+            if ((mix(key) & 63) == 7) {
+                keys.add(key);
+            }
+        }
+
+        LongConcurrentMap<Long> map = new LongConcurrentMap<Long>(1);
+        for (long key : keys) {
+            map.put(key, key);
+        }
+        map.remove(keys.get(2));
+        map.remove(keys.get(5));
+        for (int i = 0; i < keys.size(); i++) {
+            Long value = map.get(keys.get(i));
+            if (i == 2 || i == 5) {
+                check(value == null, "removed key " + keys.get(i));
+            } else {
+                check(keys.get(i).equals(value), "key after backward shift " + keys.get(i));
+            }
+        }
+        check(map.size() == 6, "collision size");
+    }
+
+    private static void growAndShrink() {
+        LongConcurrentMap<Long> map = new LongConcurrentMap<Long>(1);
+        List<Long> keys = new ArrayList<Long>();
+        for (long key = 1; key <= 10000; key++) {
+            map.put(key, key);
+            keys.add(key);
+        }
+        check(map.size() == 10000, "grow size");
+
+        // remove in random order, others still reachable
+        Collections.shuffle(keys);
+        for (int i = 0; i < 9990; i++) {
+            check(keys.get(i).equals(map.remove(keys.get(i))), "remove " + keys.get(i));
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            Long value = map.get(keys.get(i));
+            check((i < 9990)?(value == null):keys.get(i).equals(value), "get after shrink " + keys.get(i));
+        }
+        check(map.size() == 10, "shrink size");
+    }
+
+    private static void concurrent() throws Exception {
+        final LongConcurrentMap<Long> map = new LongConcurrentMap<Long>(4);
+        final AtomicInteger error = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final long base = i * 1000000L + 1;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int round = 0; round < 200; round++) {
+                        for (long key = base; key < base + 500; key++) {
+                            map.put(key, key);
+                        }
+                        for (long key = base; key < base + 500; key++) {
+                            if (!Long.valueOf(key).equals(map.get(key))) {
+                                error.incrementAndGet();
+                            }
+                        }
+                        for (long key = base; key < base + 500; key++) {
+                            if (!Long.valueOf(key).equals(map.remove(key))) {
+                                error.incrementAndGet();
+                            }
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        check(error.get() == 0, "concurrent error " + error.get());
+        check(map.size() == 0, "concurrent size");
+    }
+
+    /**
+     * same as LongConcurrentMap, murmur3 fmix64
+     */
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException("check fail: " + message);
+        }
+    }
+
+}